@@ -1,13 +1,16 @@
 package com.echocart.backend;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 
 @SpringBootApplication
+@EnableScheduling
 public class EchoCart
 {
     public static void main( String[] args )
@@ -15,9 +18,10 @@ public class EchoCart
         SpringApplication.run(EchoCart.class, args);
     }
 
+    // Each +1 doubles the cost of a hash; see README for logins/sec per core
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${echocart.passwords.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -1,5 +1,6 @@
 package com.echocart.backend.controller;
 
+import com.echocart.backend.dto.CartSummary;
 import com.echocart.backend.entity.Cart;
 import com.echocart.backend.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,4 +46,10 @@ public class CartController {
         List<Cart> cartItems = cartService.getCartDetails(userId);
         return ResponseEntity.ok(Map.of("success", true, "cartItems", cartItems));
     }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<Map<String, Object>> getCartSummary(@PathVariable Long userId) {
+        CartSummary summary = cartService.getCartSummary(userId);
+        return ResponseEntity.ok(Map.of("success", true, "cart", summary));
+    }
 }
@@ -0,0 +1,115 @@
+package com.echocart.backend.controller;
+
+import com.echocart.backend.dto.ReservationRequest;
+import com.echocart.backend.entity.InventoryReservation;
+import com.echocart.backend.service.InventoryService;
+import com.echocart.backend.web.AuthPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/inventory")
+
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    // Holds stock for the caller's own cart; checkout turns it into the sale
+    @PostMapping("/reserve")
+    public ResponseEntity<Map<String, Object>> reserveStock(@RequestBody ReservationRequest request) {
+        AuthPrincipal principal = AuthPrincipal.current();
+        if (principal == null) {
+            return notLoggedIn();
+        }
+
+        try {
+            InventoryReservation reservation = inventoryService.reserveStock(request.getProductId(),
+                    request.getQuantity(), InventoryReservation.Type.CART,
+                    InventoryReservation.cartReference(principal.userId()));
+            return ResponseEntity.ok(Map.of("success", true, "message", "Stock reserved", "reservation", reservation));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Map<String, Object>> releaseReservation(@PathVariable Long reservationId) {
+        AuthPrincipal principal = AuthPrincipal.current();
+        if (principal == null) {
+            return notLoggedIn();
+        }
+
+        // Someone else's hold reads as missing, so ids cannot be probed
+        boolean released = inventoryService.findReservation(reservationId)
+                .filter(reservation -> canSee(principal, reservation.getReference()))
+                .map(reservation -> inventoryService.releaseReservation(reservationId))
+                .orElse(false);
+        if (!released) {
+            return notFound(reservationId);
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Reservation released"));
+    }
+
+    // Keeps the stock taken for good, so only admins may turn a hold into a sale by hand
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<Map<String, Object>> commitReservation(@PathVariable Long reservationId) {
+        AuthPrincipal principal = AuthPrincipal.current();
+        if (principal == null) {
+            return notLoggedIn();
+        }
+        if (!principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Admin access required"));
+        }
+
+        if (!inventoryService.commitReservation(reservationId)) {
+            return notFound(reservationId);
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Reservation committed"));
+    }
+
+    // The caller's cart holds, or any reference's for an admin
+    @GetMapping("/reservations")
+    public ResponseEntity<Map<String, Object>> getReservations(@RequestParam(required = false) String reference) {
+        AuthPrincipal principal = AuthPrincipal.current();
+        if (principal == null) {
+            return notLoggedIn();
+        }
+
+        String holder = reference == null ? InventoryReservation.cartReference(principal.userId()) : reference;
+        if (!canSee(principal, holder)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Not your reservations"));
+        }
+        List<InventoryReservation> reservations = inventoryService.getReservations(holder);
+        return ResponseEntity.ok(Map.of("success", true, "reservations", reservations));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getInventoryStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", inventoryService.getInventoryStats()));
+    }
+
+    private static boolean canSee(AuthPrincipal principal, String reference) {
+        return principal.isAdmin() || InventoryReservation.cartReference(principal.userId()).equals(reference);
+    }
+
+    private static ResponseEntity<Map<String, Object>> notLoggedIn() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "message", "Not logged in"));
+    }
+
+    private static ResponseEntity<Map<String, Object>> notFound(Long reservationId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "Reservation not found with ID: " + reservationId));
+    }
+}
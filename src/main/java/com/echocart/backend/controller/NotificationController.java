@@ -0,0 +1,99 @@
+package com.echocart.backend.controller;
+
+import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.Payment;
+import com.echocart.backend.service.OrderService;
+import com.echocart.backend.service.PaymentService;
+import com.echocart.backend.web.StatusNotifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Server-Sent Events: the current state first, then every change until the stream ends
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final StatusNotifier statusNotifier;
+    private final PaymentService paymentService;
+    private final OrderService orderService;
+
+    public NotificationController(StatusNotifier statusNotifier, PaymentService paymentService,
+                                  OrderService orderService) {
+        this.statusNotifier = statusNotifier;
+        this.paymentService = paymentService;
+        this.orderService = orderService;
+    }
+
+    // Emits "payment" events; the stream closes once the payment is COMPLETED or FAILED
+    @GetMapping("/payments/{paymentId}")
+    public ResponseEntity<?> paymentEvents(@PathVariable Long paymentId) {
+        String topic = StatusNotifier.paymentTopic(paymentId);
+        SseEmitter emitter;
+        try {
+            emitter = statusNotifier.subscribe(topic);
+        } catch (IllegalStateException e) {
+            return unavailable(e);
+        }
+        try {
+            Payment payment = paymentService.getPaymentStatus(paymentId);
+            statusNotifier.send(emitter, "payment", paymentData(payment),
+                    payment.getPaymentStatus() != Payment.PaymentStatus.PENDING);
+        } catch (RuntimeException e) {
+            statusNotifier.unsubscribe(topic, emitter);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Emits "order" events on status changes and "payment" events for the order's payments
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> orderEvents(@PathVariable Long orderId) {
+        String topic = StatusNotifier.orderTopic(orderId);
+        SseEmitter emitter;
+        try {
+            emitter = statusNotifier.subscribe(topic);
+        } catch (IllegalStateException e) {
+            return unavailable(e);
+        }
+        try {
+            Order order = orderService.getOrderDetails(orderId);
+            statusNotifier.send(emitter, "order", Map.of("orderId", order.getOrderId(), "userId", order.getUserId(),
+                    "status", order.getStatus()), false);
+        } catch (RuntimeException e) {
+            statusNotifier.unsubscribe(topic, emitter);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", statusNotifier.getStats()));
+    }
+
+    // Same shape as the PAYMENT_PROCESSED event payload
+    private static Map<String, Object> paymentData(Payment payment) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("paymentId", payment.getPaymentId());
+        data.put("orderId", payment.getOrderId());
+        data.put("amount", payment.getAmount());
+        data.put("status", payment.getPaymentStatus());
+        if (payment.getFailureReason() != null) {
+            data.put("failureReason", payment.getFailureReason());
+        }
+        return data;
+    }
+
+    private static ResponseEntity<?> unavailable(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("success", false, "message", e.getMessage()));
+    }
+}
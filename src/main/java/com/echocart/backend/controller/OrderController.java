@@ -1,12 +1,16 @@
 package com.echocart.backend.controller;
 
+import com.echocart.backend.dto.OrderDetails;
+import com.echocart.backend.dto.OrderPage;
 import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.OrderItem;
 import com.echocart.backend.service.OrderService;
-import com.echocart.backend.repository.OrderRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,11 +20,9 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
-    private final OrderRepository orderRepository;
 
-    public OrderController(OrderService orderService, OrderRepository orderRepository) {
+    public OrderController(OrderService orderService) {
         this.orderService = orderService;
-        this.orderRepository = orderRepository;
     }
 
     @PostMapping
@@ -34,6 +36,24 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/checkout")
+    public ResponseEntity<Map<String, Object>> checkout(@RequestParam Long userId) {
+        try {
+            OrderDetails details = orderService.checkout(userId);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Order placed successfully",
+                    "order", details.getOrder(), "items", details.getItems()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{orderId}/items")
+    public ResponseEntity<Map<String, Object>> getOrderItems(@PathVariable Long orderId) {
+        List<OrderItem> items = orderService.getOrderItems(orderId);
+        return ResponseEntity.ok(Map.of("success", true, "items", items));
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<Map<String, Object>> getOrderDetails(@PathVariable Long orderId) {
         try {
@@ -46,10 +66,21 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getUserOrders(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, Object>> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId);
-            return ResponseEntity.ok(Map.of("success", true, "orders", orders));
+            OrderPage page = orderService.getUserOrders(userId, cursor, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", true);
+            body.put("orders", page.getOrders());
+            body.put("nextCursor", page.getNextCursor());
+            body.put("hasMore", page.hasMore());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("success", false, "message", "Failed to get user orders"));
@@ -57,10 +88,17 @@ public class OrderController {
     }
 
     @PutMapping("/{orderId}/status")
-    public ResponseEntity<Map<String, Object>> updateOrderStatus(@PathVariable Long orderId, @RequestParam Order.Status status) {
+    public ResponseEntity<Map<String, Object>> updateOrderStatus(@PathVariable Long orderId, @RequestParam Order.Status status,
+                                                                 @RequestParam(required = false) Long version) {
         try {
-            Order updated = orderService.updateOrderStatus(orderId, status);
+            Order updated = orderService.updateOrderStatus(orderId, status, version);
             return ResponseEntity.ok(Map.of("success", true, "message", "Order status updated", "order", updated));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", "Order was changed by someone else, reload and retry"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("success", false, "message", e.getMessage()));
@@ -2,6 +2,7 @@ package com.echocart.backend.controller;
 
 import com.echocart.backend.entity.Payment;
 import com.echocart.backend.service.PaymentService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,14 +23,24 @@ public class PaymentController {
     @PostMapping
     public ResponseEntity<Map<String, Object>> processPayment(@RequestBody Payment payment) {
         try {
-            Payment processed = paymentService.processPayment(payment);
-            return ResponseEntity.ok(Map.of("success", true, "message", "Payment processed successfully", "payment", processed));
+            Payment accepted = paymentService.processPayment(payment);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("success", true, "message", "Payment accepted for processing", "payment", accepted));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("success", false, "message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("success", false, "message", e.getMessage()));
         }
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getProcessingStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", paymentService.getProcessingStats()));
+    }
+
     @GetMapping("/{paymentId}")
     public ResponseEntity<Map<String, Object>> getPaymentStatus(@PathVariable Long paymentId) {
         try {
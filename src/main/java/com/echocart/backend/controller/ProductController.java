@@ -1,11 +1,27 @@
 package com.echocart.backend.controller;
 
+import com.echocart.backend.dto.ImportJob;
+import com.echocart.backend.dto.ProductBrowseResult;
+import com.echocart.backend.dto.ProductPage;
+import com.echocart.backend.dto.ProductSearchResult;
+import com.echocart.backend.dto.ProductSummary;
 import com.echocart.backend.entity.Product;
+import com.echocart.backend.service.ProductImportService;
 import com.echocart.backend.service.ProductService;
+import com.echocart.backend.service.SearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,10 +29,19 @@ import java.util.Map;
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final SearchService searchService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, SearchService searchService,
+                             ProductImportService productImportService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.searchService = searchService;
+        this.productImportService = productImportService;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -65,8 +90,153 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(Map.of("success", true, "products", products));
+    public ResponseEntity<Map<String, Object>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductPage page = productService.getProductsPage(cursor, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", true);
+            body.put("products", page.getProducts());
+            body.put("nextCursor", page.getNextCursor());
+            body.put("hasMore", page.hasMore());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductSearchResult result = searchService.searchProducts(q, categoryId, minPrice, maxPrice, limit);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "results", result.getHits(),
+                    "totalMatches", result.getTotalMatches()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<ProductSummary> suggestions = searchService.suggestProducts(q, limit);
+            return ResponseEntity.ok(Map.of("success", true, "suggestions", suggestions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<Map<String, Object>> browseProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String priceRange,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductBrowseResult result = searchService.browseProducts(categoryId, priceRange, inStock, cursor, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", true);
+            body.put("products", result.getProducts());
+            body.put("nextCursor", result.getNextCursor());
+            body.put("hasMore", result.hasMore());
+            body.put("totalMatches", result.getTotalMatches());
+            body.put("facets", result.getFacets());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getProductsByIds(@RequestParam List<Long> ids) {
+        return batchResponse(ids);
+    }
+
+    // Same lookup for id lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getProductsByIdsPost(@RequestBody Map<String, List<Long>> payload) {
+        return batchResponse(payload.get("ids"));
+    }
+
+    private ResponseEntity<Map<String, Object>> batchResponse(List<Long> ids) {
+        try {
+            List<Product> products = productService.getProductsByIds(ids);
+            return ResponseEntity.ok(Map.of("success", true, "products", products));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // The raw request body is the file; format comes from the parameter or the content type
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importProducts(@RequestParam(required = false) String format,
+                                                              HttpServletRequest request) {
+        if (format == null) {
+            String contentType = request.getContentType() == null ? "" : request.getContentType();
+            format = contentType.startsWith("text/csv") ? "csv"
+                    : contentType.startsWith("application/x-ndjson") ? "ndjson" : null;
+        }
+        try {
+            ImportJob job = productImportService.startImport(request.getInputStream(), format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("success", true, "message", "Import started", "job", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "message", "Failed to read upload"));
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportJob(@PathVariable String jobId) {
+        return productImportService.getJob(jobId)
+                .<ResponseEntity<Map<String, Object>>>map(job -> ResponseEntity.ok(Map.of("success", true, "job", job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("success", false, "message", "Import job not found: " + jobId)));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(Map.of("success", true, "cache", productService.getCacheStats()));
+    }
+
+    // Streamed mode: one JSON product per line, written as rows come off the cursor
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                productService.streamAllProducts(product -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(product));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 }
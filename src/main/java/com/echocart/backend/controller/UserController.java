@@ -1,19 +1,39 @@
 package com.echocart.backend.controller;
 
+import com.echocart.backend.dto.BulkStatusResult;
+import com.echocart.backend.dto.OrderPage;
 import com.echocart.backend.entity.User;
-import com.echocart.backend.entity.Product;
 import com.echocart.backend.entity.Order;
+import com.echocart.backend.outbox.OutboxDispatcher;
+import com.echocart.backend.service.ExportService;
 import com.echocart.backend.service.UserService;
-import com.echocart.backend.service.ProductService;
 import com.echocart.backend.service.OrderService;
+import com.echocart.backend.service.UserAvailabilityIndex;
+import com.echocart.backend.web.AuthPrincipal;
+import com.echocart.backend.web.AuthTokenService;
+import com.echocart.backend.web.LoginRateLimiter;
+import com.echocart.backend.web.TokenDenyList;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 //class level
 @RestController
 @RequestMapping("/api/users")
@@ -21,13 +41,25 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
-    private final ProductService productService;
     private final OrderService orderService;
-
-    public UserController(UserService userService, ProductService productService, OrderService orderService) {
+    private final ExportService exportService;
+    private final OutboxDispatcher outboxDispatcher;
+    private final AuthTokenService tokenService;
+    private final TokenDenyList denyList;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final LoginRateLimiter loginRateLimiter;
+
+    public UserController(UserService userService, OrderService orderService, ExportService exportService,
+                          OutboxDispatcher outboxDispatcher, AuthTokenService tokenService, TokenDenyList denyList,
+                          UserAvailabilityIndex availabilityIndex, LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
-        this.productService = productService;
         this.orderService = orderService;
+        this.exportService = exportService;
+        this.outboxDispatcher = outboxDispatcher;
+        this.tokenService = tokenService;
+        this.denyList = denyList;
+        this.availabilityIndex = availabilityIndex;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     // ==================== CUSTOMER & ADMIN COMMON ENDPOINTS ====================
@@ -89,13 +121,24 @@ public class UserController {
 
     // LOGIN (Works for both Customer & Admin)
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody Map<String, String> credentials) {
+    public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody Map<String, String> credentials,
+                                                     HttpServletRequest request) {
+        String emailOrUsername = credentials.get("email");
+        String password = credentials.get("password");
+
+        // Throttled before the user lookup and the password hash
+        long waitMs = loginRateLimiter.tryAcquire(request, emailOrUsername);
+        if (waitMs > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((waitMs + 999) / 1000))
+                    .body(Map.of("success", false, "message", "Too many login attempts, please try again later"));
+        }
+
         try {
-            String emailOrUsername = credentials.get("email");
-            String password = credentials.get("password");
 
             User user = userService.loginUser(emailOrUsername, password);
 
+            // Send as "Authorization: Bearer <token>" on later requests
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Login successful!",
@@ -103,14 +146,54 @@ public class UserController {
                     "username", user.getUsername(),
                     "email", user.getEmail(),
                     "role", user.getRole(),
-                    "isAdmin", user.getRole() == User.Role.ADMIN
+                    "isAdmin", user.getRole() == User.Role.ADMIN,
+                    "token", tokenService.issue(user)
             ));
+        } catch (IllegalStateException e) {
+            // Password hashing pool is saturated
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Invalid credentials"));
         }
     }
 
+    // AVAILABILITY - live "is this taken?" check for the registration form
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> checkAvailability(@RequestParam(required = false) String username,
+                                                                 @RequestParam(required = false) String email) {
+        boolean hasUsername = username != null && !username.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (!hasUsername && !hasEmail) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Provide a username and/or email"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        if (hasUsername) {
+            response.put("username", Map.of("value", username, "available", userService.isUsernameAvailable(username)));
+        }
+        if (hasEmail) {
+            response.put("email", Map.of("value", email, "available", userService.isEmailAvailable(email)));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // LOGOUT - revokes the presented token
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout() {
+        AuthPrincipal principal = AuthPrincipal.current();
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Not logged in"));
+        }
+        denyList.revoke(principal);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Logged out"));
+    }
+
     // GET USER PROFILE
     @GetMapping("/{userId}")
     public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable Long userId) {
@@ -133,14 +216,12 @@ public class UserController {
 
     // ==================== ADMIN ONLY ENDPOINTS ====================
 
-    // Helper method to verify admin access
-    private boolean isAdmin(Long userId) {
-        try {
-            User user = userService.getUserProfile(userId);
-            return user.getRole() == User.Role.ADMIN;
-        } catch (Exception e) {
-            return false;
-        }
+    // Helper method to verify admin access - checks the verified token, no DB lookup.
+    // adminUserId is optional now; when sent it must match the token's user.
+    private boolean isAdmin(Long adminUserId) {
+        AuthPrincipal principal = AuthPrincipal.current();
+        return principal != null && principal.isAdmin()
+                && (adminUserId == null || adminUserId.equals(principal.userId()));
     }
 
 
@@ -178,7 +259,7 @@ public class UserController {
 
     // ADMIN DASHBOARD
     @GetMapping("/admin/dashboard")
-    public ResponseEntity<Map<String, Object>> getAdminDashboard(@RequestParam Long adminUserId) {
+    public ResponseEntity<Map<String, Object>> getAdminDashboard(@RequestParam(required = false) Long adminUserId) {
         if (!isAdmin(adminUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("success", false, "message", "Admin access required"));
@@ -193,61 +274,116 @@ public class UserController {
         }
     }
 
-    // GET ALL USERS (Admin Only)
-    @GetMapping("/admin/allusers")
-    public ResponseEntity<Map<String, Object>> getAllUsers(@RequestParam Long adminUserId) {
+    // OUTBOX DISPATCH STATS (Admin Only) - backlog, lag and throughput
+    @GetMapping("/admin/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats(@RequestParam(required = false) Long adminUserId) {
         if (!isAdmin(adminUserId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("success", false, "message", "Admin access required"));
+            return forbidden();
         }
+        return ResponseEntity.ok(Map.of("success", true, "outbox", outboxDispatcher.getStats()));
+    }
 
-        try {
-            List<User> users = userService.getAllUsers();
-            return ResponseEntity.ok(Map.of("success", true, "users", users));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Failed to get users"));
+    // AVAILABILITY INDEX STATS (Admin Only) - filter size and how many checks skipped the database
+    @GetMapping("/admin/availability/stats")
+    public ResponseEntity<Map<String, Object>> getAvailabilityStats(@RequestParam(required = false) Long adminUserId) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
         }
+        return ResponseEntity.ok(Map.of("success", true, "availability", availabilityIndex.getStats()));
+    }
+
+    // LOGIN RATE LIMIT STATS (Admin Only) - admitted vs rejected attempts per IP and per account
+    @GetMapping("/admin/login-limit/stats")
+    public ResponseEntity<Map<String, Object>> getLoginLimitStats(@RequestParam(required = false) Long adminUserId) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(Map.of("success", true, "loginLimit", loginRateLimiter.getStats()));
+    }
+
+    // GET ALL USERS (Admin Only) - streamed in the same JSON envelope as before
+    @GetMapping("/admin/allusers")
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Long adminUserId) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
+        }
+        return stream(ExportService.Format.JSON, false, "users",
+                (out, format) -> exportService.exportUsers(out, format));
     }
 
     // GET ALL PRODUCTS (Admin Only)
     @GetMapping("/admin/all-products")
-    public ResponseEntity<Map<String, Object>> getAllProducts(@RequestParam Long adminUserId) {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) Long adminUserId) {
         if (!isAdmin(adminUserId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("success", false, "message", "Admin access required"));
+            return forbidden();
+        }
+        return stream(ExportService.Format.JSON, false, "products",
+                (out, format) -> exportService.exportProducts(out, format));
+    }
+
+    // ORDERS PAGE (Admin Only) - newest first, optionally one status, keyset cursor
+    @GetMapping("/admin/orders")
+    public ResponseEntity<Map<String, Object>> getOrdersPage(
+            @RequestParam(required = false) Long adminUserId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
         }
 
         try {
-            List<Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(Map.of("success", true, "products", products));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Failed to get products"));
+            Order.Status orderStatus = status == null ? null : Order.Status.valueOf(status.toUpperCase(Locale.ROOT));
+            OrderPage page = orderService.getOrders(orderStatus, cursor, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", true);
+            body.put("orders", page.getOrders());
+            body.put("nextCursor", page.getNextCursor());
+            body.put("hasMore", page.hasMore());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
         }
     }
 
-    // GET ALL ORDERS (Admin Only)
-    @GetMapping("/admin/all-orders")
-    public ResponseEntity<Map<String, Object>> getAllOrders(@RequestParam Long adminUserId) {
+    // EXPORTS (Admin Only) - format=csv|ndjson, gzip=true compresses the body
+    @GetMapping("/admin/export/orders")
+    public ResponseEntity<?> exportOrders(@RequestParam(required = false) Long adminUserId,
+                                          @RequestParam(defaultValue = "csv") String format,
+                                          @RequestParam(defaultValue = "false") boolean gzip,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         if (!isAdmin(adminUserId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("success", false, "message", "Admin access required"));
+            return forbidden();
         }
+        return export(format, gzip, "orders", (out, exportFormat) -> exportService.exportOrders(out, exportFormat, from, to));
+    }
 
-        try {
-            List<Order> orders = userService.getAllOrders();
-            return ResponseEntity.ok(Map.of("success", true, "orders", orders));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Failed to get orders"));
+    @GetMapping("/admin/export/users")
+    public ResponseEntity<?> exportUsers(@RequestParam(required = false) Long adminUserId,
+                                         @RequestParam(defaultValue = "csv") String format,
+                                         @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
         }
+        return export(format, gzip, "users", (out, exportFormat) -> exportService.exportUsers(out, exportFormat));
+    }
+
+    @GetMapping("/admin/export/products")
+    public ResponseEntity<?> exportProducts(@RequestParam(required = false) Long adminUserId,
+                                            @RequestParam(defaultValue = "csv") String format,
+                                            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
+        }
+        return export(format, gzip, "products", (out, exportFormat) -> exportService.exportProducts(out, exportFormat));
     }
 
     // UPDATE USER ROLE (Admin Only)
     @PutMapping("/admin/update-role")
     public ResponseEntity<Map<String, Object>> updateUserRole(
-            @RequestParam Long adminUserId,
+            @RequestParam(required = false) Long adminUserId,
             @RequestParam Long targetUserId,
             @RequestParam String newRole) {
 
@@ -259,6 +395,8 @@ public class UserController {
         try {
             User.Role role = User.Role.valueOf(newRole.toUpperCase());
             User updatedUser = userService.updateUserRole(targetUserId, role);
+            // Existing tokens still carry the old role
+            denyList.revokeUser(targetUserId);
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "User role updated successfully",
@@ -277,8 +415,9 @@ public class UserController {
     @PutMapping("/admin/orders/{orderId}/status")
     public ResponseEntity<Map<String, Object>> updateOrderStatus(
             @PathVariable Long orderId,
-            @RequestParam Long adminUserId,
-            @RequestParam String status) {
+            @RequestParam(required = false) Long adminUserId,
+            @RequestParam String status,
+            @RequestParam(required = false) Long version) {
 
         if (!isAdmin(adminUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -287,23 +426,50 @@ public class UserController {
 
         try {
             Order.Status orderStatus = Order.Status.valueOf(status.toUpperCase());
-            Order updatedOrder = orderService.updateOrderStatus(orderId, orderStatus);
+            Order updatedOrder = orderService.updateOrderStatus(orderId, orderStatus, version);
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Order status updated successfully",
                     "order", updatedOrder
             ));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", "Order was changed by someone else, reload and retry"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("success", false, "message", e.getMessage()));
         }
     }
 
+    // BULK ORDER STATUS (Admin Only) - body {"orderIds": [...]}; reports each id's outcome
+    @PostMapping("/admin/orders/status")
+    public ResponseEntity<Map<String, Object>> updateOrderStatuses(
+            @RequestParam(required = false) Long adminUserId,
+            @RequestParam String status,
+            @RequestBody Map<String, List<Long>> payload) {
+
+        if (!isAdmin(adminUserId)) {
+            return forbidden();
+        }
+
+        try {
+            Order.Status orderStatus = Order.Status.valueOf(status.toUpperCase(Locale.ROOT));
+            BulkStatusResult result = orderService.updateOrderStatuses(payload.get("orderIds"), orderStatus);
+            return ResponseEntity.ok(Map.of("success", true, "result", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     // DELETE USER (Admin Only)
     @DeleteMapping("/admin/delete-user/{userId}")
     public ResponseEntity<Map<String, Object>> deleteUser(
             @PathVariable Long userId,
-            @RequestParam Long adminUserId) {
+            @RequestParam(required = false) Long adminUserId) {
 
         if (!isAdmin(adminUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -312,10 +478,61 @@ public class UserController {
 
         try {
             userService.deleteUser(userId);
+            denyList.revokeUser(userId);
             return ResponseEntity.ok(Map.of("success", true, "message", "User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("success", false, "message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Map<String, Object>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "message", "Admin access required"));
+    }
+
+    private ResponseEntity<?> export(String format, boolean gzip, String name, Exporter exporter) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            exportFormat = null;
+        }
+        if (exportFormat == null || exportFormat == ExportService.Format.JSON) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Unsupported export format: " + format));
+        }
+        return stream(exportFormat, gzip, name, exporter);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ExportService.Format format, boolean gzip,
+                                                         String name, Exporter exporter) {
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(outputStream, 8192);
+                exporter.export(compressed, format);
+                compressed.finish();
+            } else {
+                exporter.export(outputStream, format);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        switch (format) {
+            case CSV -> response.contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".csv\"");
+            case NDJSON -> response.contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".ndjson\"");
+            case JSON -> response.contentType(MediaType.APPLICATION_JSON);
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        void export(OutputStream out, ExportService.Format format) throws IOException;
+    }
+}
@@ -0,0 +1,33 @@
+package com.echocart.backend.dto;
+
+import com.echocart.backend.entity.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk order status change, per order id: changed, lost to a concurrent
+ * update, not allowed from the order's current status, or no such order.
+ */
+public class BulkStatusResult {
+
+    private final Order.Status status;
+    private final List<Long> succeeded = new ArrayList<>();
+    private final List<Long> conflicted = new ArrayList<>();
+    private final List<Long> illegal = new ArrayList<>();
+    private final List<Long> notFound = new ArrayList<>();
+
+    public BulkStatusResult(Order.Status status) {
+        this.status = status;
+    }
+
+    public Order.Status getStatus() { return status; }
+
+    public List<Long> getSucceeded() { return succeeded; }
+
+    public List<Long> getConflicted() { return conflicted; }
+
+    public List<Long> getIllegal() { return illegal; }
+
+    public List<Long> getNotFound() { return notFound; }
+}
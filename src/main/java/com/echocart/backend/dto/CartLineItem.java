@@ -0,0 +1,55 @@
+package com.echocart.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line joined with its product. Built directly by a JPQL constructor
+ * expression, so field order must match CartRepository.findCartLines.
+ */
+public class CartLineItem {
+
+    private final Long cartId;
+    private final Long productId;
+    private final String name;
+    private final BigDecimal price;
+    private final String imageUrl;
+    private final Integer stockQuantity;
+    private final Integer quantity;
+
+    public CartLineItem(Long cartId, Long productId, String name, BigDecimal price, String imageUrl,
+                        Integer stockQuantity, Integer quantity) {
+        this.cartId = cartId;
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.stockQuantity = stockQuantity;
+        this.quantity = quantity;
+    }
+
+    public CartLineItem withStockQuantity(Integer stockQuantity) {
+        return new CartLineItem(cartId, productId, name, price, imageUrl, stockQuantity, quantity);
+    }
+
+    public Long getCartId() { return cartId; }
+
+    public Long getProductId() { return productId; }
+
+    public String getName() { return name; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public String getImageUrl() { return imageUrl; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+
+    public Integer getQuantity() { return quantity; }
+
+    public boolean isAvailable() {
+        return stockQuantity != null && stockQuantity >= quantity;
+    }
+
+    public BigDecimal getLineTotal() {
+        return price.multiply(BigDecimal.valueOf(quantity));
+    }
+}
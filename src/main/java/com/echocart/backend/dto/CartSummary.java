@@ -0,0 +1,43 @@
+package com.echocart.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A user's cart with product details and server-computed totals.
+ */
+public class CartSummary {
+
+    private final Long userId;
+    private final List<CartLineItem> items;
+    private final int itemCount;
+    private final BigDecimal grandTotal;
+    private final boolean allAvailable;
+
+    public CartSummary(Long userId, List<CartLineItem> items) {
+        this.userId = userId;
+        this.items = items;
+
+        int count = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        boolean available = true;
+        for (CartLineItem item : items) {
+            count += item.getQuantity();
+            total = total.add(item.getLineTotal());
+            available &= item.isAvailable();
+        }
+        this.itemCount = count;
+        this.grandTotal = total;
+        this.allAvailable = available;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public List<CartLineItem> getItems() { return items; }
+
+    public int getItemCount() { return itemCount; }
+
+    public BigDecimal getGrandTotal() { return grandTotal; }
+
+    public boolean isAllAvailable() { return allAvailable; }
+}
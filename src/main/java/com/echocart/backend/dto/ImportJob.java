@@ -0,0 +1,94 @@
+package com.echocart.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk product import. Updated by the import thread and read by
+ * status requests, so counters are atomic and the error list is copied on read.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String jobId;
+    private final String format;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+
+    public ImportJob(String jobId, String format, int maxErrors) {
+        this.jobId = jobId;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void finish(Status status, String message) {
+        this.status = status;
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowsImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    // Every failure is counted, but only the first maxErrors are kept for the report
+    public void rowFailed(long row, String error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, error));
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public String getJobId() { return jobId; }
+
+    public String getFormat() { return format; }
+
+    public Status getStatus() { return status; }
+
+    public String getMessage() { return message; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public long getRowsRead() { return rowsRead.get(); }
+
+    public long getImported() { return imported.get(); }
+
+    public long getFailed() { return failed.get(); }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    public record RowError(long row, String error) {}
+}
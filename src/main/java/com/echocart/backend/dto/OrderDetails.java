@@ -0,0 +1,24 @@
+package com.echocart.backend.dto;
+
+import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.OrderItem;
+
+import java.util.List;
+
+/**
+ * An order together with its line items.
+ */
+public class OrderDetails {
+
+    private final Order order;
+    private final List<OrderItem> items;
+
+    public OrderDetails(Order order, List<OrderItem> items) {
+        this.order = order;
+        this.items = items;
+    }
+
+    public Order getOrder() { return order; }
+
+    public List<OrderItem> getItems() { return items; }
+}
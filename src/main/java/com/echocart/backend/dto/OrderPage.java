@@ -0,0 +1,58 @@
+package com.echocart.backend.dto;
+
+import com.echocart.backend.entity.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of orders, newest first. The cursor carries the (orderDate, orderId)
+ * of the last order on the page; it is null on the last page.
+ */
+public class OrderPage {
+
+    private static final String CURSOR_PREFIX = "o:";
+
+    private final List<Order> orders;
+    private final String nextCursor;
+
+    public OrderPage(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() { return orders; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    public static String encodeCursor(Order last) {
+        String raw = CURSOR_PREFIX + last.getOrderDate() + ":" + last.getOrderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the position to continue after, or null for the first page
+     */
+    public static Position decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (!raw.startsWith(CURSOR_PREFIX) || parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Position(LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            // Covers bad Base64, dates and numbers alike
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public record Position(LocalDate orderDate, Long orderId) {}
+}
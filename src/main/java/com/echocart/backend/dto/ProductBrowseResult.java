@@ -0,0 +1,33 @@
+package com.echocart.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A filtered keyset page of products plus the facet counts for the same filters.
+ */
+public class ProductBrowseResult {
+
+    private final List<ProductSummary> products;
+    private final String nextCursor;
+    private final int totalMatches;
+    private final Map<String, Object> facets;
+
+    public ProductBrowseResult(List<ProductSummary> products, String nextCursor, int totalMatches,
+                               Map<String, Object> facets) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+        this.totalMatches = totalMatches;
+        this.facets = facets;
+    }
+
+    public List<ProductSummary> getProducts() { return products; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    public int getTotalMatches() { return totalMatches; }
+
+    public Map<String, Object> getFacets() { return facets; }
+}
@@ -0,0 +1,52 @@
+package com.echocart.backend.dto;
+
+import com.echocart.backend.entity.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of the product catalog. {@code nextCursor} is an opaque token
+ * the client hands back to fetch the following page; it is null on the last page.
+ */
+public class ProductPage {
+
+    private static final String CURSOR_PREFIX = "p:";
+
+    private final List<Product> products;
+    private final String nextCursor;
+
+    public ProductPage(List<Product> products, String nextCursor) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Product> getProducts() { return products; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    // Cursor helpers - the token only carries the last productId seen
+    public static String encodeCursor(Long lastProductId) {
+        String raw = CURSOR_PREFIX + lastProductId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
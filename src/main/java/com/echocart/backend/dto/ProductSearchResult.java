@@ -0,0 +1,36 @@
+package com.echocart.backend.dto;
+
+import java.util.List;
+
+/**
+ * Ranked search results. {@code totalMatches} counts every product that matched
+ * the query and filters, not just the returned top-N.
+ */
+public class ProductSearchResult {
+
+    private final List<Hit> hits;
+    private final int totalMatches;
+
+    public ProductSearchResult(List<Hit> hits, int totalMatches) {
+        this.hits = hits;
+        this.totalMatches = totalMatches;
+    }
+
+    public List<Hit> getHits() { return hits; }
+
+    public int getTotalMatches() { return totalMatches; }
+
+    public static class Hit {
+        private final ProductSummary product;
+        private final double score;
+
+        public Hit(ProductSummary product, double score) {
+            this.product = product;
+            this.score = score;
+        }
+
+        public ProductSummary getProduct() { return product; }
+
+        public double getScore() { return score; }
+    }
+}
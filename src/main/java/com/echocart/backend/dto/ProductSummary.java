@@ -0,0 +1,50 @@
+package com.echocart.backend.dto;
+
+import com.echocart.backend.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Listing-sized view of a product (no description), used by the in-memory
+ * search structures so results can be served without loading the entity.
+ */
+public class ProductSummary {
+
+    private final Long productId;
+    private final String name;
+    private final BigDecimal price;
+    private final Long categoryId;
+    private final Integer stockQuantity;
+    private final String imageUrl;
+
+    public ProductSummary(Long productId, String name, BigDecimal price, Long categoryId,
+                          Integer stockQuantity, String imageUrl) {
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.categoryId = categoryId;
+        this.stockQuantity = stockQuantity;
+        this.imageUrl = imageUrl;
+    }
+
+    public static ProductSummary of(Product product) {
+        return new ProductSummary(product.getProductId(), product.getName(), product.getPrice(),
+                product.getCategoryId(), product.getStockQuantity(), product.getImageUrl());
+    }
+
+    public ProductSummary withStockQuantity(Integer stockQuantity) {
+        return new ProductSummary(productId, name, price, categoryId, stockQuantity, imageUrl);
+    }
+
+    public Long getProductId() { return productId; }
+
+    public String getName() { return name; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public Long getCategoryId() { return categoryId; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+
+    public String getImageUrl() { return imageUrl; }
+}
@@ -0,0 +1,24 @@
+package com.echocart.backend.dto;
+
+/**
+ * Body of a stock reservation request. The hold is always made for the caller's own
+ * cart, so only the product and quantity come from the client.
+ */
+public class ReservationRequest {
+
+    private Long productId;
+    private Integer quantity;
+
+    public ReservationRequest() {}
+
+    public ReservationRequest(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -5,9 +5,14 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cart_user_product", columnNames = {"userId", "productId"})
+})
 public class Cart {
 
+    // Stays IDENTITY: lines are only ever inserted by CartServiceImpl's INSERT ... SELECT
+    // and upsert statements through JdbcTemplate, which leave the id to AUTO_INCREMENT,
+    // or with explicit ids by the in-memory cart store
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long cartId;
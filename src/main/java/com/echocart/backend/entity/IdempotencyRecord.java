@@ -0,0 +1,65 @@
+package com.echocart.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The stored outcome of a request sent with an Idempotency-Key. A row without a status
+ * code is a claim: the request is still running (or its instance died, in which case
+ * the claim simply expires).
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord {
+
+    // "POST /api/payments <client key>"
+    @Id
+    @Column(length = 200)
+    private String scopedKey;
+
+    // SHA-256 of method, path, query and body; a reused key with another request is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    // Getters and Setters
+    public String getScopedKey() { return scopedKey; }
+    public void setScopedKey(String scopedKey) { this.scopedKey = scopedKey; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public Integer getStatusCode() { return statusCode; }
+    public void setStatusCode(Integer statusCode) { this.statusCode = statusCode; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
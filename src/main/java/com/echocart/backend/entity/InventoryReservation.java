@@ -0,0 +1,78 @@
+package com.echocart.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventory_reservations", indexes = {
+        @Index(name = "idx_reservation_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_reservation_reference", columnList = "reference")
+})
+public class InventoryReservation {
+
+    public enum Type {
+        CART, ORDER
+    }
+
+    @Id
+    @PooledId(segment = "inventory_reservations")
+    private Long reservationId;
+
+    @NotNull(message = "Product ID is required")
+    @Column(nullable = false)
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    // Who holds the stock, e.g. "cart:42" or "order:1001"
+    @Column(nullable = false, length = 100)
+    private String reference;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public InventoryReservation() {}
+
+    public InventoryReservation(Long productId, Integer quantity, Type type, String reference, LocalDateTime expiresAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.type = type;
+        this.reference = reference;
+        this.expiresAt = expiresAt;
+    }
+
+    // The reference cart holds are kept under, and that checkout turns into a sale
+    public static String cartReference(Long userId) {
+        return "cart:" + userId;
+    }
+
+    // Getters and Setters
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
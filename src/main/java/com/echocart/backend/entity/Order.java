@@ -1,21 +1,35 @@
 package com.echocart.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "userId, orderDate, orderId"),
+        @Index(name = "idx_orders_status_date", columnList = "status, orderDate, orderId"),
+        @Index(name = "idx_orders_date", columnList = "orderDate, orderId")
+})
 public class Order {
 
     public enum Status {
-        PENDING, SHIPPED, DELIVERED, CANCELLED
+        PENDING, SHIPPED, DELIVERED, CANCELLED;
+
+        // Allowed moves: PENDING -> SHIPPED | CANCELLED, SHIPPED -> DELIVERED; the rest are final
+        public boolean canTransitionTo(Status next) {
+            return switch (this) {
+                case PENDING -> next == SHIPPED || next == CANCELLED;
+                case SHIPPED -> next == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(segment = "orders")
     private Long orderId;
 
     @NotNull(message = "User ID is required")
@@ -34,6 +48,12 @@ public class Order {
     @Column(nullable = false, length = 20)
     private Status status = Status.PENDING;
 
+    // Optimistic lock; the default fills the column for rows that predate it
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Constructors
     public Order() {
         this.orderDate = LocalDate.now();
@@ -60,4 +80,7 @@ public class Order {
 
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.echocart.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_item_order", columnList = "orderId")
+})
+public class OrderItem {
+
+    @Id
+    @PooledId(segment = "order_items")
+    private Long orderItemId;
+
+    @NotNull(message = "Order ID is required")
+    @Column(nullable = false)
+    private Long orderId;
+
+    @NotNull(message = "Product ID is required")
+    @Column(nullable = false)
+    private Long productId;
+
+    // Name and price are copied at checkout so later catalog edits do not rewrite history
+    @Column(nullable = false)
+    private String productName;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Constructors
+    public OrderItem() {}
+
+    public OrderItem(Long orderId, Long productId, String productName, BigDecimal unitPrice, Integer quantity) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getOrderItemId() { return orderItemId; }
+    public void setOrderItemId(Long orderItemId) { this.orderItemId = orderItemId; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public BigDecimal getLineTotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -0,0 +1,103 @@
+package com.echocart.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event written in the same transaction as the change it describes and
+ * delivered to in-process subscribers afterwards by the OutboxDispatcher.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_outbox_dispatched", columnList = "status, dispatchedAt")
+})
+public class OutboxEvent {
+
+    public enum Type {
+        ORDER_CREATED, ORDER_STATUS_CHANGED, PAYMENT_PROCESSED
+    }
+
+    // PENDING until every subscriber has handled it; FAILED once retries are used up
+    public enum Status {
+        PENDING, DISPATCHED, FAILED
+    }
+
+    @Id
+    @PooledId(segment = "outbox_events")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private Type eventType;
+
+    // orderId or paymentId, depending on the type
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Also pushed forward while a dispatcher holds the event, so a crashed one's claim expires
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime dispatchedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(Type eventType, Long aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public Type getEventType() { return eventType; }
+    public void setEventType(Type eventType) { this.eventType = eventType; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getDispatchedAt() { return dispatchedAt; }
+    public void setDispatchedAt(LocalDateTime dispatchedAt) { this.dispatchedAt = dispatchedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
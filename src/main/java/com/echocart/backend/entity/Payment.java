@@ -17,7 +17,7 @@ public class Payment {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(segment = "payments")
     private Long paymentId;
 
     @NotNull(message = "Order ID is required")
@@ -32,6 +32,13 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
 
+    // Set by the gateway on approval
+    @Column(length = 100)
+    private String gatewayReference;
+
+    // Why a FAILED payment failed (declined, gateway error, timeout)
+    @Column(length = 200)
+    private String failureReason;
 
     @Column(nullable = false)
     private LocalDate paymentDate;
@@ -60,6 +67,12 @@ public class Payment {
     public PaymentStatus getPaymentStatus() { return paymentStatus; }
     public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
 
+    public String getGatewayReference() { return gatewayReference; }
+    public void setGatewayReference(String gatewayReference) { this.gatewayReference = gatewayReference; }
+
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+
     public LocalDate getPaymentDate() { return paymentDate; }
     public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
 }
@@ -0,0 +1,20 @@
+package com.echocart.backend.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id as allocated by {@link PooledIdGenerator}. The segment names the entity's
+ * row in id_generators, usually its table name.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    String segment();
+}
@@ -0,0 +1,48 @@
+package com.echocart.backend.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Pooled, table-backed id generator. IDENTITY keys force Hibernate to insert every row on
+ * its own to read the key back, which turns JDBC batching off; with this generator ids
+ * are handed out in memory and id_generators is only touched once per allocation-size ids.
+ *
+ * Entities opt in with {@link PooledId}; each keeps its own row, named by the segment.
+ * The allocation size comes from spring.jpa.properties.echocart.ids.allocation-size.
+ */
+public class PooledIdGenerator extends TableGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TABLE = "id_generators";
+    public static final String ALLOCATION_SIZE_SETTING = "echocart.ids.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String segment;
+
+    public PooledIdGenerator(PooledId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.segment = config.segment();
+    }
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        int allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+
+        params.setProperty(TABLE_PARAM, TABLE);
+        params.setProperty(SEGMENT_COLUMN_PARAM, "sequence_name");
+        params.setProperty(VALUE_COLUMN_PARAM, "next_val");
+        params.setProperty(SEGMENT_VALUE_PARAM, segment);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -12,7 +12,7 @@ import java.math.BigDecimal;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(segment = "products")
     private Long productId;
 
     @NotBlank(message = "Product name is required")
@@ -0,0 +1,44 @@
+package com.echocart.backend.event;
+
+import com.echocart.backend.entity.Product;
+
+/**
+ * Published by ProductServiceImpl whenever a product is created, updated or deleted.
+ * Listeners that keep in-memory views of the catalog should use
+ * {@code @TransactionalEventListener} so they only see committed writes.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Product product;
+
+    private ProductChangedEvent(Type type, Long productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public Type getType() { return type; }
+
+    public Long getProductId() { return productId; }
+
+    // Null for DELETED events
+    public Product getProduct() { return product; }
+}
@@ -0,0 +1,21 @@
+package com.echocart.backend.event;
+
+/**
+ * Published when a product's stock column moves outside ProductServiceImpl, e.g. by an
+ * inventory reservation. Carries the delta only; MySQL cannot return the new value
+ * from the conditional UPDATE without another round trip.
+ */
+public class ProductStockChangedEvent {
+
+    private final Long productId;
+    private final int delta;
+
+    public ProductStockChangedEvent(Long productId, int delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    public Long getProductId() { return productId; }
+
+    public int getDelta() { return delta; }
+}
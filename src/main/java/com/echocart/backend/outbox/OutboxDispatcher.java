@@ -0,0 +1,361 @@
+package com.echocart.backend.outbox;
+
+import com.echocart.backend.entity.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the outbox table and hands each event to every {@link OutboxSubscriber}.
+ *
+ * One poller thread claims due events in batches (SELECT ... FOR UPDATE SKIP LOCKED,
+ * then pushes their next_attempt_at out by claim-timeout-ms), so several instances can
+ * share the table. Each claimed event is delivered on its own virtual thread; results
+ * are written back as JDBC batches. Failed events are retried with exponential backoff
+ * and jitter until max-attempts, then parked as FAILED. An event whose delivery does not
+ * finish (timeout, crash) becomes due again once its claim expires.
+ *
+ * The poller runs every poll-interval-ms, right after a transaction that published
+ * events commits, and keeps going while batches come back full.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String SELECT_DUE_SQL =
+            "SELECT event_id, event_type, aggregate_id, payload, attempts, created_at FROM outbox_events " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at, event_id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+    private static final String CLAIM_SQL = "UPDATE outbox_events SET next_attempt_at = ? WHERE event_id = ?";
+    private static final String DISPATCHED_SQL =
+            "UPDATE outbox_events SET status = 'DISPATCHED', attempts = attempts + 1, dispatched_at = ?, " +
+            "last_error = NULL WHERE event_id = ?";
+    private static final String FAILED_SQL =
+            "UPDATE outbox_events SET status = ?, attempts = attempts + 1, next_attempt_at = ?, last_error = ? " +
+            "WHERE event_id = ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM outbox_events WHERE status = 'DISPATCHED' AND dispatched_at < ? LIMIT ?";
+    private static final String BACKLOG_SQL =
+            "SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM outbox_events WHERE status = 'PENDING'";
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate claimTransaction;
+    private final ObjectProvider<OutboxSubscriber> subscriberProvider;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long claimTimeoutMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration retention;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService deliveries = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("outbox-delivery-", 0).factory());
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+    // Resolved once the context is up, so subscribers may themselves publish events
+    private volatile List<OutboxSubscriber> subscribers;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder lagTotalMs = new LongAdder();
+    private final LongAccumulator lagMaxMs = new LongAccumulator(Math::max, 0);
+    // Dispatched events per second over the last minute, indexed by epoch second
+    private final AtomicLongArray rateSeconds = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final AtomicLongArray rateCounts = new AtomicLongArray(RATE_WINDOW_SECONDS);
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ObjectProvider<OutboxSubscriber> subscriberProvider,
+                            @Value("${echocart.outbox.batch-size:100}") int batchSize,
+                            @Value("${echocart.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+                            @Value("${echocart.outbox.claim-timeout-ms:60000}") long claimTimeoutMs,
+                            @Value("${echocart.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${echocart.outbox.backoff.initial-ms:1000}") long baseBackoffMs,
+                            @Value("${echocart.outbox.backoff.max-ms:600000}") long maxBackoffMs,
+                            @Value("${echocart.outbox.retention-hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.subscriberProvider = subscriberProvider;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.claimTimeoutMs = claimTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscribers = subscriberProvider.orderedStream().toList();
+        poller.scheduleWithFixedDelay(this::drainQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purgeQuietly, 1, 60, TimeUnit.MINUTES);
+        log.info("Outbox dispatcher started with {} subscribers", subscribers.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdown();
+        try {
+            poller.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deliveries.shutdownNow();
+    }
+
+    public void wakeUp() {
+        if (wakeUpRequested.compareAndSet(false, true)) {
+            try {
+                poller.execute(this::drainQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; events stay in the table for the next start
+            }
+        }
+    }
+
+    /**
+     * Delivers due events batch by batch until a batch comes back short.
+     * Returns the number of events claimed.
+     */
+    public int drain() {
+        wakeUpRequested.set(false);
+        if (subscribers == null) {
+            // Not started; delivering now would mark events dispatched with nobody listening
+            return 0;
+        }
+        int total = 0;
+        int claimed;
+        do {
+            List<OutboxMessage> batch = claim();
+            claimed = batch.size();
+            if (claimed > 0) {
+                deliver(batch);
+                batches.increment();
+                total += claimed;
+            }
+        } while (claimed == batchSize && !poller.isShutdown());
+        return total;
+    }
+
+    public int purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff, 10_000);
+            purged += deleted;
+        } while (deleted == 10_000);
+        return purged;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        jdbcTemplate.query(BACKLOG_SQL, rs -> {
+            Timestamp oldest = rs.getTimestamp("oldest");
+            stats.put("pending", rs.getLong("pending"));
+            stats.put("oldestPendingAgeMs", oldest == null ? 0
+                    : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis()));
+        });
+
+        long dispatchedCount = dispatched.sum();
+        stats.put("subscribers", subscribers == null ? 0 : subscribers.size());
+        stats.put("dispatched", dispatchedCount);
+        stats.put("failedAttempts", failedAttempts.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        stats.put("batches", batches.sum());
+        stats.put("avgLagMs", dispatchedCount == 0 ? 0.0 : (double) lagTotalMs.sum() / dispatchedCount);
+        stats.put("maxLagMs", lagMaxMs.get());
+        stats.put("dispatchedPerSecond", recentRate());
+        return stats;
+    }
+
+    private List<OutboxMessage> claim() {
+        List<OutboxMessage> batch = claimTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = jdbcTemplate.query(SELECT_DUE_SQL, (rs, rowNum) -> new OutboxMessage(
+                    rs.getLong("event_id"),
+                    OutboxEvent.Type.valueOf(rs.getString("event_type")),
+                    rs.getLong("aggregate_id"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    rs.getInt("attempts") + 1), Timestamp.valueOf(now), batchSize);
+            if (!due.isEmpty()) {
+                Timestamp claimedUntil = Timestamp.valueOf(now.plus(Duration.ofMillis(claimTimeoutMs)));
+                jdbcTemplate.batchUpdate(CLAIM_SQL, due, due.size(), (ps, message) -> {
+                    ps.setTimestamp(1, claimedUntil);
+                    ps.setLong(2, message.eventId());
+                });
+            }
+            return due;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private void deliver(List<OutboxMessage> batch) {
+        List<Callable<String>> tasks = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            tasks.add(() -> handle(message));
+        }
+
+        List<Future<String>> results;
+        try {
+            // Anything still running when the claim expires is cancelled and redelivered later
+            results = deliveries.invokeAll(tasks, claimTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> succeeded = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            Future<String> result = results.get(i);
+            if (result.isCancelled()) {
+                continue;
+            }
+            String error;
+            try {
+                error = result.get();
+            } catch (Exception e) {
+                error = String.valueOf(e.getCause());
+            }
+            if (error == null) {
+                succeeded.add(message);
+                continue;
+            }
+            failedAttempts.increment();
+            boolean dead = message.attempt() >= maxAttempts;
+            if (dead) {
+                deadLettered.increment();
+                log.error("Outbox event {} ({}) failed {} times, giving up: {}",
+                        message.eventId(), message.type(), message.attempt(), error);
+            } else {
+                log.warn("Outbox event {} ({}) failed attempt {}: {}",
+                        message.eventId(), message.type(), message.attempt(), error);
+            }
+            failed.add(new Object[]{
+                    (dead ? OutboxEvent.Status.FAILED : OutboxEvent.Status.PENDING).name(),
+                    Timestamp.valueOf(now.plus(Duration.ofMillis(backoff(message.attempt())))),
+                    error.length() > 500 ? error.substring(0, 500) : error,
+                    message.eventId()});
+        }
+
+        if (!succeeded.isEmpty()) {
+            jdbcTemplate.batchUpdate(DISPATCHED_SQL, succeeded, succeeded.size(), (ps, message) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(now));
+                ps.setLong(2, message.eventId());
+            });
+            for (OutboxMessage message : succeeded) {
+                long lagMs = Math.max(0, Duration.between(message.createdAt(), now).toMillis());
+                lagTotalMs.add(lagMs);
+                lagMaxMs.accumulate(lagMs);
+            }
+            dispatched.add(succeeded.size());
+            recordRate(succeeded.size());
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(FAILED_SQL, failed);
+        }
+    }
+
+    // Returns null on success, otherwise the first subscriber's error
+    private String handle(OutboxMessage message) {
+        for (OutboxSubscriber subscriber : subscribers) {
+            if (!subscriber.accepts(message.type())) {
+                continue;
+            }
+            try {
+                subscriber.handle(message);
+            } catch (Exception e) {
+                return subscriber.getClass().getSimpleName() + ": " + e;
+            }
+        }
+        return null;
+    }
+
+    private long backoff(int attempt) {
+        long delay = baseBackoffMs << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, maxBackoffMs);
+        // Random delay within the upper half, so events that failed together do not retry together
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void recordRate(int count) {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % RATE_WINDOW_SECONDS);
+        long stamped = rateSeconds.get(slot);
+        if (stamped != second && rateSeconds.compareAndSet(slot, stamped, second)) {
+            rateCounts.set(slot, 0);
+        }
+        rateCounts.addAndGet(slot, count);
+    }
+
+    private double recentRate() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            if (now - rateSeconds.get(slot) < RATE_WINDOW_SECONDS) {
+                total += rateCounts.get(slot);
+            }
+        }
+        return (double) total / RATE_WINDOW_SECONDS;
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch failed", e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} dispatched outbox events", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
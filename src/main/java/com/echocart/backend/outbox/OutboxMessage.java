@@ -0,0 +1,12 @@
+package com.echocart.backend.outbox;
+
+import com.echocart.backend.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a subscriber receives; {@code payload} is the JSON written with the event and
+ * {@code attempt} starts at 1.
+ */
+public record OutboxMessage(Long eventId, OutboxEvent.Type type, Long aggregateId, String payload,
+                            LocalDateTime createdAt, int attempt) {}
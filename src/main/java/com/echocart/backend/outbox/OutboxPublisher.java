@@ -0,0 +1,72 @@
+package com.echocart.backend.outbox;
+
+import com.echocart.backend.entity.OutboxEvent;
+import com.echocart.backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records events in the outbox table inside the caller's transaction, so an event
+ * exists exactly when the change it describes was committed. After the commit the
+ * dispatcher is nudged instead of waiting for its next poll.
+ */
+@Component
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, OutboxDispatcher dispatcher,
+                           ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.Type type, Long aggregateId, Map<String, ?> payload) {
+        outboxEventRepository.save(new OutboxEvent(type, aggregateId, toJson(payload)));
+        wakeDispatcherAfterCommit();
+    }
+
+    /**
+     * One event per aggregate id; inserted as a single JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(OutboxEvent.Type type, Map<Long, ? extends Map<String, ?>> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        payloads.forEach((aggregateId, payload) -> events.add(new OutboxEvent(type, aggregateId, toJson(payload))));
+        outboxEventRepository.saveAll(events);
+        wakeDispatcherAfterCommit();
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable", e);
+        }
+    }
+
+    private void wakeDispatcherAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.echocart.backend.outbox;
+
+import com.echocart.backend.entity.OutboxEvent;
+
+/**
+ * In-process consumer of outbox events. Every bean implementing this is picked up by
+ * the OutboxDispatcher.
+ *
+ * Delivery is at least once: an event is retried for all subscribers when any of them
+ * throws, and again if the application stops mid-delivery, so handlers must be
+ * idempotent (the event id is stable across retries). Events are delivered
+ * concurrently, so there is no ordering guarantee between them either.
+ */
+public interface OutboxSubscriber {
+
+    default boolean accepts(OutboxEvent.Type type) {
+        return true;
+    }
+
+    void handle(OutboxMessage message) throws Exception;
+}
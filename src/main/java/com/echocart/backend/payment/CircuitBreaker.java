@@ -0,0 +1,159 @@
+package com.echocart.backend.payment;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While CLOSED it tracks the outcome of the last
+ * {@code windowSize} calls and opens once at least {@code minimumCalls} were seen and
+ * the failure share reaches {@code failureRateThreshold}. OPEN rejects calls for
+ * {@code openMillis}, then HALF_OPEN lets a single trial call through, whose outcome
+ * closes or re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long rejected;
+    private long opened;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openMillis) {
+        this(windowSize, minimumCalls, failureRateThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    // The clock is a parameter so tests can move time without sleeping
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openMillis,
+                   LongSupplier clock) {
+        this.clock = clock;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Whether a call may go ahead now. A true answer must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Like {@link #tryAcquire()} but without taking the half-open trial; used to turn
+     * work away early while the breaker is open.
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || clock.getAsLong() - openedAt >= openMillis;
+    }
+
+    /**
+     * How long until an open breaker lets its half-open trial through; 0 unless OPEN.
+     */
+    public synchronized long millisUntilHalfOpen() {
+        return state == State.OPEN ? Math.max(0, openedAt + openMillis - clock.getAsLong()) : 0;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Hands back a permit from {@link #tryAcquire()} without recording an outcome, for a
+     * call that was abandoned (e.g. on shutdown) rather than answered.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+                "state", state,
+                "windowCalls", recorded,
+                "windowFailures", failures,
+                "timesOpened", opened,
+                "rejectedCalls", rejected
+        );
+    }
+
+    private void record(boolean failed) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        trialInFlight = false;
+        opened++;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.echocart.backend.payment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Something that can charge a payment. Implementations must give up after
+ * {@code timeout} (throwing {@link PaymentGatewayException}) and should treat
+ * {@code paymentId} as an idempotency reference, because a payment left PENDING by a
+ * restart is charged again.
+ */
+public interface PaymentGateway {
+
+    Result charge(Long paymentId, Long orderId, BigDecimal amount, Duration timeout);
+
+    /**
+     * A definite answer from the gateway. Declines are normal outcomes; transport
+     * problems and timeouts are thrown instead and count against the circuit breaker.
+     */
+    record Result(boolean approved, String reference, String declineReason) {
+
+        public static Result approved(String reference) {
+            return new Result(true, reference, null);
+        }
+
+        public static Result declined(String reason) {
+            return new Result(false, null, reason);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.echocart.backend.payment;
+
+/**
+ * The gateway could not be reached or did not answer in time.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,304 @@
+package com.echocart.backend.payment;
+
+import com.echocart.backend.entity.OutboxEvent;
+import com.echocart.backend.entity.Payment;
+import com.echocart.backend.outbox.OutboxPublisher;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs accepted payments against the {@link PaymentGateway} off the request thread.
+ *
+ * A fixed pool of {@code concurrency} workers makes the gateway calls. The bulkhead is a
+ * semaphore of {@code concurrency + queue-capacity} permits taken when a payment is
+ * admitted, so a slow gateway fills the queue and then turns new payments away instead
+ * of piling up work. A circuit breaker stops calling a failing gateway for a while:
+ * admission is refused while it is open, and payments already queued stay PENDING and
+ * are retried once it lets calls through again.
+ *
+ * The final status is written with a conditional UPDATE (only from PENDING) together
+ * with a PAYMENT_PROCESSED outbox event. Payments still PENDING at startup are resubmitted,
+ * relying on the gateway treating the payment id as an idempotency reference. Shutdown
+ * waits for calls already at the gateway and leaves everything else PENDING for that.
+ */
+@Component
+public class PaymentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    private static final String FINISH_SQL =
+            "UPDATE payments SET payment_status = ?, gateway_reference = ?, failure_reason = ? " +
+            "WHERE payment_id = ? AND payment_status = 'PENDING'";
+    private static final String SELECT_PENDING_SQL =
+            "SELECT payment_id, order_id, amount FROM payments WHERE payment_status = 'PENDING' ORDER BY payment_id";
+
+    private final PaymentGateway gateway;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate finishTransaction;
+    private final OutboxPublisher outboxPublisher;
+    private final Duration gatewayTimeout;
+    private final int concurrency;
+    private final int queueCapacity;
+
+    private final ExecutorService workers;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean shuttingDown;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder gatewayErrors = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder gatewayTimeTotalMs = new LongAdder();
+
+    public PaymentProcessor(PaymentGateway gateway, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, OutboxPublisher outboxPublisher,
+                            @Value("${echocart.payments.concurrency:16}") int concurrency,
+                            @Value("${echocart.payments.queue-capacity:200}") int queueCapacity,
+                            @Value("${echocart.payments.gateway-timeout-ms:3000}") long gatewayTimeoutMs,
+                            @Value("${echocart.payments.breaker.window-size:50}") int windowSize,
+                            @Value("${echocart.payments.breaker.minimum-calls:20}") int minimumCalls,
+                            @Value("${echocart.payments.breaker.failure-rate:0.5}") double failureRate,
+                            @Value("${echocart.payments.breaker.open-ms:30000}") long openMs) {
+        this.gateway = gateway;
+        this.jdbcTemplate = jdbcTemplate;
+        this.finishTransaction = new TransactionTemplate(transactionManager);
+        this.outboxPublisher = outboxPublisher;
+        this.gatewayTimeout = Duration.ofMillis(gatewayTimeoutMs);
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        // The semaphore already bounds the work, so the queue never holds more than queueCapacity
+        this.workers = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "payment-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bulkhead = new Semaphore(concurrency + queueCapacity);
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRate, openMs);
+    }
+
+    /**
+     * Reserves room for one payment. Throws if the gateway is known to be down or the
+     * queue is full; otherwise the caller must {@link #submit} or {@link #release}.
+     */
+    public void admit() {
+        if (!circuitBreaker.isCallPermitted()) {
+            rejected.increment();
+            throw new IllegalStateException("Payment gateway is unavailable, please try again later");
+        }
+        if (!bulkhead.tryAcquire()) {
+            rejected.increment();
+            throw new IllegalStateException("Too many payments in progress, please try again later");
+        }
+    }
+
+    public void release() {
+        bulkhead.release();
+    }
+
+    /**
+     * Queues an admitted payment; the permit is released when it finishes.
+     */
+    public void submit(Long paymentId, Long orderId, BigDecimal amount) {
+        try {
+            workers.execute(() -> {
+                boolean retrying = false;
+                try {
+                    retrying = process(paymentId, orderId, amount);
+                } finally {
+                    // A payment waiting out the breaker keeps its permit
+                    if (!retrying) {
+                        bulkhead.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            log.error("Could not queue payment {}, it stays PENDING until the next restart", paymentId, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resubmitPending() {
+        List<Object[]> pending = jdbcTemplate.query(SELECT_PENDING_SQL, (rs, rowNum) -> new Object[]{
+                rs.getLong("payment_id"), rs.getLong("order_id"), rs.getBigDecimal("amount")});
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Resubmitting {} pending payments", pending.size());
+        Thread.ofVirtual().name("payment-recovery").start(() -> {
+            for (Object[] row : pending) {
+                if (shuttingDown) {
+                    return;
+                }
+                try {
+                    // Waits for room instead of turning recovered payments away
+                    bulkhead.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                submit((Long) row[0], (Long) row[1], (BigDecimal) row[2]);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Calls already at the gateway may finish; queued payments are skipped and stay
+        // PENDING in the table, to be resubmitted on the next start
+        shuttingDown = true;
+        retries.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(gatewayTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+                // A gateway ignoring its timeout is cut off; those payments stay PENDING too
+                workers.shutdownNow();
+                workers.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long calls = completed.sum() + declined.sum() + gatewayErrors.sum();
+        stats.put("concurrency", concurrency);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("inFlight", inFlight.get());
+        stats.put("queued", Math.max(0, concurrency + queueCapacity - bulkhead.availablePermits() - inFlight.get()));
+        stats.put("completed", completed.sum());
+        stats.put("declined", declined.sum());
+        stats.put("gatewayErrors", gatewayErrors.sum());
+        stats.put("shortCircuited", shortCircuited.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("avgGatewayMs", calls == 0 ? 0.0 : (double) gatewayTimeTotalMs.sum() / calls);
+        stats.put("circuitBreaker", circuitBreaker.getStats());
+        return stats;
+    }
+
+    /**
+     * Charges one payment and records the outcome. Returns true if it was handed to the
+     * retry scheduler instead, still holding its bulkhead permit.
+     */
+    private boolean process(Long paymentId, Long orderId, BigDecimal amount) {
+        if (shuttingDown) {
+            return false;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            // The gateway never saw this payment, so it is not failed, only delayed
+            shortCircuited.increment();
+            return retryLater(paymentId, orderId, amount);
+        }
+
+        inFlight.incrementAndGet();
+        long start = System.currentTimeMillis();
+        PaymentGateway.Result result;
+        try {
+            result = gateway.charge(paymentId, orderId, amount, gatewayTimeout);
+            circuitBreaker.onSuccess();
+        } catch (RuntimeException e) {
+            boolean interrupted = Thread.currentThread().isInterrupted() || e.getCause() instanceof InterruptedException;
+            if (interrupted || shuttingDown) {
+                // Cut off by shutdown rather than answered: neither a failed payment nor a gateway failure
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                circuitBreaker.release();
+                log.info("Payment {} was interrupted by shutdown and stays PENDING", paymentId);
+                return false;
+            }
+            circuitBreaker.onFailure();
+            gatewayErrors.increment();
+            log.warn("Payment {} failed at the gateway: {}", paymentId, e.getMessage());
+            finish(paymentId, orderId, amount, Payment.PaymentStatus.FAILED, null, e.getMessage());
+            return false;
+        } finally {
+            gatewayTimeTotalMs.add(System.currentTimeMillis() - start);
+            inFlight.decrementAndGet();
+        }
+
+        if (result.approved()) {
+            completed.increment();
+            finish(paymentId, orderId, amount, Payment.PaymentStatus.COMPLETED, result.reference(), null);
+        } else {
+            declined.increment();
+            finish(paymentId, orderId, amount, Payment.PaymentStatus.FAILED, null, result.declineReason());
+        }
+        return false;
+    }
+
+    // Once the breaker half-opens; while its trial call runs, after that call's timeout
+    private boolean retryLater(Long paymentId, Long orderId, BigDecimal amount) {
+        long untilHalfOpen = circuitBreaker.millisUntilHalfOpen();
+        long delay = untilHalfOpen > 0 ? untilHalfOpen : gatewayTimeout.toMillis();
+        try {
+            retries.schedule(() -> submit(paymentId, orderId, amount), delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the payment is resubmitted on the next start
+            return false;
+        }
+    }
+
+    private void finish(Long paymentId, Long orderId, BigDecimal amount, Payment.PaymentStatus status,
+                        String reference, String failureReason) {
+        String reason = failureReason != null && failureReason.length() > 200
+                ? failureReason.substring(0, 200) : failureReason;
+        try {
+            finishTransaction.executeWithoutResult(tx -> {
+                int updated = jdbcTemplate.update(FINISH_SQL, status.name(), reference, reason, paymentId);
+                if (updated == 0) {
+                    // Already finished, e.g. by a resubmission after restart
+                    return;
+                }
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("paymentId", paymentId);
+                payload.put("orderId", orderId);
+                payload.put("amount", amount);
+                payload.put("status", status);
+                if (reason != null) {
+                    payload.put("failureReason", reason);
+                }
+                outboxPublisher.publish(OutboxEvent.Type.PAYMENT_PROCESSED, paymentId, payload);
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not record the outcome ({}) of payment {}", status, paymentId, e);
+        }
+    }
+}
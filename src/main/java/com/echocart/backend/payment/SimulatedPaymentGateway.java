@@ -0,0 +1,66 @@
+package com.echocart.backend.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a card gateway: waits a random latency between min and max, declines
+ * a share of charges, and fails another share with errors or by hanging past the timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "echocart.payments.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long minLatencyMs;
+    private final long maxLatencyMs;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+
+    public SimulatedPaymentGateway(@Value("${echocart.payments.simulated.min-latency-ms:300}") long minLatencyMs,
+                                   @Value("${echocart.payments.simulated.max-latency-ms:2000}") long maxLatencyMs,
+                                   @Value("${echocart.payments.simulated.decline-rate:0.05}") double declineRate,
+                                   @Value("${echocart.payments.simulated.error-rate:0.02}") double errorRate,
+                                   @Value("${echocart.payments.simulated.hang-rate:0.01}") double hangRate) {
+        this.minLatencyMs = minLatencyMs;
+        this.maxLatencyMs = Math.max(minLatencyMs, maxLatencyMs);
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+    }
+
+    @Override
+    public Result charge(Long paymentId, Long orderId, BigDecimal amount, Duration timeout) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        long latencyMs = random.nextLong(minLatencyMs, maxLatencyMs + 1);
+
+        if (roll < hangRate || latencyMs > timeout.toMillis()) {
+            sleep(timeout.toMillis());
+            throw new PaymentGatewayException("Gateway timed out after " + timeout.toMillis() + " ms");
+        }
+        sleep(latencyMs);
+        if (roll < hangRate + errorRate) {
+            throw new PaymentGatewayException("Gateway error");
+        }
+        if (roll < hangRate + errorRate + declineRate) {
+            return Result.declined("Card declined");
+        }
+        return Result.approved("sim_" + paymentId + "_" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while waiting for the gateway");
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package com.echocart.backend.repository;
 
+import com.echocart.backend.dto.CartLineItem;
 import com.echocart.backend.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     List<Cart> findByUserId(Long userId);
+
+    Optional<Cart> findByUserIdAndProductId(Long userId, Long productId);
+
+    // Cart lines joined with their products in one round trip
+    @Query("SELECT new com.echocart.backend.dto.CartLineItem(c.cartId, p.productId, p.name, p.price, " +
+            "p.imageUrl, p.stockQuantity, c.quantity) " +
+            "FROM Cart c JOIN Product p ON p.productId = c.productId " +
+            "WHERE c.userId = :userId ORDER BY c.cartId")
+    List<CartLineItem> findCartLines(@Param("userId") Long userId);
+
+    // Product popularity seed for type-ahead suggestions: {productId, cart count}
+    @Query("SELECT c.productId, COUNT(c) FROM Cart c GROUP BY c.productId")
+    List<Object[]> countCartsByProduct();
 }
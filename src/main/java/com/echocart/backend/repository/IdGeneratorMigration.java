@@ -0,0 +1,60 @@
+package com.echocart.backend.repository;
+
+import com.echocart.backend.entity.PooledIdGenerator;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves existing databases from AUTO_INCREMENT keys to {@link PooledIdGenerator}.
+ * Runs once the schema is up to date and before the application takes requests: each
+ * entity's id_generators row is raised to at least MAX(id) + allocation size, so the
+ * first pool handed out starts above every existing key. Safe to run on every start;
+ * it never lowers a value.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorMigration.class);
+
+    // id_generators segment -> key column; segments are named after their tables
+    private static final Map<String, String> KEY_COLUMNS = Map.of(
+            "products", "product_id",
+            "users", "user_id",
+            "orders", "order_id",
+            "order_items", "order_item_id",
+            "payments", "payment_id",
+            "inventory_reservations", "reservation_id",
+            "outbox_events", "event_id"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+
+    public IdGeneratorMigration(JdbcTemplate jdbcTemplate,
+                                @Value("${echocart.ids.allocation-size:" + PooledIdGenerator.DEFAULT_ALLOCATION_SIZE + "}")
+                                int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PooledIdGenerator.TABLE + " (" +
+                "sequence_name VARCHAR(255) NOT NULL, next_val BIGINT, PRIMARY KEY (sequence_name))");
+
+        KEY_COLUMNS.forEach((table, keyColumn) -> {
+            jdbcTemplate.update("INSERT INTO " + PooledIdGenerator.TABLE + " (sequence_name, next_val) " +
+                    "SELECT ?, COALESCE(MAX(" + keyColumn + "), 0) + ? FROM " + table + " " +
+                    "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))", table, allocationSize);
+        });
+        log.info("Id generators checked for {} tables", KEY_COLUMNS.size());
+    }
+}
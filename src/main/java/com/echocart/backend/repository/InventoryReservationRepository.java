@@ -0,0 +1,23 @@
+package com.echocart.backend.repository;
+
+import com.echocart.backend.entity.InventoryReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+    List<InventoryReservation> findByReference(String reference);
+
+    @Query("SELECT r.reservationId FROM InventoryReservation r WHERE r.expiresAt < :now ORDER BY r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Returns 1 only for the caller that actually removed the row, so stock is restored once
+    @Modifying
+    @Query("DELETE FROM InventoryReservation r WHERE r.reservationId = :reservationId")
+    int deleteReservation(@Param("reservationId") Long reservationId);
+}
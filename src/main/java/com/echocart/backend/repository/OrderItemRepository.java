@@ -0,0 +1,13 @@
+package com.echocart.backend.repository;
+
+import com.echocart.backend.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    List<OrderItem> findByOrderIdOrderByOrderItemId(Long orderId);
+
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
+}
@@ -1,19 +1,44 @@
 package com.echocart.backend.repository;
 
 import com.echocart.backend.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.orderDate DESC")
-    List<Order> findByUserIdOrderByOrderDateDesc(@Param("userId") Long userId);
 
-    List<Order> findByStatus(Order.Status status);
+    // Keyset pages, newest first. Each pair is served by the matching (..., orderDate, orderId)
+    // index on Order; the redundant orderDate <= :orderDate bound gives MySQL a range to seek to.
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findUserOrders(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.orderDate <= :orderDate " +
+            "AND (o.orderDate < :orderDate OR o.orderId < :orderId) ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findUserOrdersBefore(@Param("userId") Long userId, @Param("orderDate") LocalDate orderDate,
+                                     @Param("orderId") Long orderId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findOrders(Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.orderDate <= :orderDate " +
+            "AND (o.orderDate < :orderDate OR o.orderId < :orderId) ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findOrdersBefore(@Param("orderDate") LocalDate orderDate, @Param("orderId") Long orderId,
+                                 Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findOrdersByStatus(@Param("status") Order.Status status, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.orderDate <= :orderDate " +
+            "AND (o.orderDate < :orderDate OR o.orderId < :orderId) ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findOrdersByStatusBefore(@Param("status") Order.Status status, @Param("orderDate") LocalDate orderDate,
+                                         @Param("orderId") Long orderId, Pageable pageable);
 
     // Admin method
     Long countByStatus(Order.Status status);
@@ -0,0 +1,7 @@
+package com.echocart.backend.repository;
+
+import com.echocart.backend.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
@@ -1,7 +1,50 @@
 package com.echocart.backend.repository;
 
 import com.echocart.backend.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Keyset pagination - seeks on the primary key instead of OFFSET
+    @Query("SELECT p FROM Product p WHERE p.productId > :afterId ORDER BY p.productId ASC")
+    List<Product> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Forward-only cursor; MySQL Connector/J streams row by row when fetch size is Integer.MIN_VALUE
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.productId ASC")
+    Stream<Product> streamAll();
+
+    // Conditional decrement - never takes stock below zero, and needs no prior read
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+            "WHERE p.productId = :productId AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Returns the rows deleted, so of two racing deletes only one sees 1
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.productId = :productId")
+    int deleteProductById(@Param("productId") Long productId);
+
+    // Row lock taken before a hot product's stock is overwritten, so no lease runs meanwhile
+    @Query(value = "SELECT stock_quantity FROM products WHERE product_id = :productId FOR UPDATE", nativeQuery = true)
+    Integer lockStockQuantity(@Param("productId") Long productId);
 }
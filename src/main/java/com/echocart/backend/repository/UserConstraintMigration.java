@@ -0,0 +1,66 @@
+package com.echocart.backend.repository;
+
+import com.echocart.backend.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives the users table its named unique keys ({@link User#USERNAME_CONSTRAINT},
+ * {@link User#EMAIL_CONSTRAINT}) and drops the generated ones older schemas have on the
+ * same columns, so a duplicate-key error always names a constraint the service can map
+ * back to "Username/Email already exists". Safe to run on every start.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserConstraintMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(UserConstraintMigration.class);
+
+    private static final Map<String, String> CONSTRAINTS = Map.of(
+            "username", User.USERNAME_CONSTRAINT,
+            "email", User.EMAIL_CONSTRAINT
+    );
+
+    // Single-column unique indexes on a column, by name
+    private static final String UNIQUE_INDEXES_SQL =
+            "SELECT index_name FROM information_schema.statistics s " +
+            "WHERE s.table_schema = DATABASE() AND s.table_name = 'users' AND s.non_unique = 0 " +
+            "AND s.column_name = ? AND (SELECT COUNT(*) FROM information_schema.statistics c " +
+            "WHERE c.table_schema = s.table_schema AND c.table_name = s.table_name " +
+            "AND c.index_name = s.index_name) = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserConstraintMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        CONSTRAINTS.forEach((column, constraint) -> {
+            try {
+                List<String> indexes = jdbcTemplate.queryForList(UNIQUE_INDEXES_SQL, String.class, column);
+                if (indexes.stream().noneMatch(constraint::equalsIgnoreCase)) {
+                    jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT " + constraint + " UNIQUE (" + column + ")");
+                    log.info("Added unique constraint {} on users.{}", constraint, column);
+                }
+                for (String index : indexes) {
+                    if (!index.equalsIgnoreCase(constraint)) {
+                        jdbcTemplate.execute("ALTER TABLE users DROP INDEX `" + index + "`");
+                        log.info("Dropped unique index {} on users.{}, replaced by {}", index, column, constraint);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // e.g. existing duplicates; registration still works, errors are just less specific
+                log.error("Could not set up unique constraint {} on users.{}", constraint, column, e);
+            }
+        });
+    }
+}
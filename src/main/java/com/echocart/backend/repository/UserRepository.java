@@ -2,9 +2,11 @@ package com.echocart.backend.repository;
 
 import com.echocart.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +19,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
     Optional<User> findByUsernameOrEmail(@Param("identifier") String identifier);
 
+    // Only replaces the value that was verified, so a password changed meanwhile is kept
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :hash WHERE u.userId = :userId AND u.password = :previous")
+    int replacePassword(@Param("userId") Long userId, @Param("previous") String previous, @Param("hash") String hash);
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
@@ -0,0 +1,268 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.dto.ProductSummary;
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Category / price range / availability facets over the catalog. Counts live in a
+ * small category x price bucket x in-stock matrix that is adjusted on every committed
+ * product write, so facet counts for any filter combination are a sum over that
+ * matrix rather than a GROUP BY. Products are kept per category in productId order
+ * so filtered pages use the same keyset cursor as the plain listing.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private final ProductService productService;
+    private final BigDecimal[] bucketBounds;
+    private final String[] bucketLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, ProductSummary> allProducts = new TreeMap<>();
+    private final Map<Long, NavigableMap<Long, ProductSummary>> productsByCategory = new HashMap<>();
+    // categoryId -> [price bucket][0 = out of stock, 1 = in stock]
+    private final Map<Long, int[][]> counts = new HashMap<>();
+
+    public ProductFacetIndex(ProductService productService,
+                             @Value("${echocart.facets.price-buckets:500,1000,5000,10000}") List<BigDecimal> bounds) {
+        this.productService = productService;
+        this.bucketBounds = bounds.stream().sorted().toArray(BigDecimal[]::new);
+        this.bucketLabels = new String[bucketBounds.length + 1];
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < bucketBounds.length; i++) {
+            bucketLabels[i] = lower.toPlainString() + "-" + bucketBounds[i].toPlainString();
+            lower = bucketBounds[i];
+        }
+        bucketLabels[bucketBounds.length] = lower.toPlainString() + "+";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            allProducts.clear();
+            productsByCategory.clear();
+            counts.clear();
+            productService.streamAllProducts(product -> add(ProductSummary.of(product)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product facet index built: {} products, {} categories in {} ms",
+                allProducts.size(), counts.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getProductId());
+            if (event.getType() != ProductChangedEvent.Type.DELETED) {
+                add(ProductSummary.of(event.getProduct()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            ProductSummary product = allProducts.get(event.getProductId());
+            if (product == null) {
+                return;
+            }
+            int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+            remove(product.getProductId());
+            add(product.withStockQuantity(Math.max(0, stock + event.getDelta())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a price range label (as returned in the facets) to its bucket index.
+     */
+    public int bucketIndex(String label) {
+        for (int i = 0; i < bucketLabels.length; i++) {
+            if (bucketLabels[i].equals(label)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown price range: " + label);
+    }
+
+    /**
+     * @param priceBucket bucket index, or -1 for any price
+     * @param afterId     keyset position; only products with a larger id are returned
+     */
+    public Result browse(Long categoryId, int priceBucket, Boolean inStock, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, ProductSummary> source = categoryId == null
+                    ? allProducts
+                    : productsByCategory.getOrDefault(categoryId, new TreeMap<>());
+
+            // One row past the limit tells us whether another page exists
+            List<ProductSummary> page = new ArrayList<>(limit + 1);
+            for (ProductSummary product : source.tailMap(afterId, false).values()) {
+                if (matches(product, priceBucket, inStock)) {
+                    page.add(product);
+                    if (page.size() > limit) {
+                        break;
+                    }
+                }
+            }
+            return new Result(page, total(categoryId, priceBucket, inStock), facets(categoryId, priceBucket, inStock));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void add(ProductSummary product) {
+        allProducts.put(product.getProductId(), product);
+        productsByCategory.computeIfAbsent(product.getCategoryId(), id -> new TreeMap<>())
+                .put(product.getProductId(), product);
+        counts.computeIfAbsent(product.getCategoryId(), id -> new int[bucketLabels.length][2])
+                [bucketOf(product.getPrice())][stockSlot(product)]++;
+    }
+
+    // Callers must hold the write lock
+    private void remove(Long productId) {
+        ProductSummary product = allProducts.remove(productId);
+        if (product == null) {
+            return;
+        }
+        NavigableMap<Long, ProductSummary> category = productsByCategory.get(product.getCategoryId());
+        category.remove(productId);
+        if (category.isEmpty()) {
+            productsByCategory.remove(product.getCategoryId());
+            counts.remove(product.getCategoryId());
+        } else {
+            counts.get(product.getCategoryId())[bucketOf(product.getPrice())][stockSlot(product)]--;
+        }
+    }
+
+    private boolean matches(ProductSummary product, int priceBucket, Boolean inStock) {
+        if (priceBucket >= 0 && bucketOf(product.getPrice()) != priceBucket) {
+            return false;
+        }
+        return inStock == null || inStock == (stockSlot(product) == 1);
+    }
+
+    private int total(Long categoryId, int priceBucket, Boolean inStock) {
+        int total = 0;
+        for (Map.Entry<Long, int[][]> entry : counts.entrySet()) {
+            if (categoryId == null || categoryId.equals(entry.getKey())) {
+                total += sum(entry.getValue(), priceBucket, inStock);
+            }
+        }
+        return total;
+    }
+
+    // Each facet is counted with every filter applied except its own
+    private Map<String, Object> facets(Long categoryId, int priceBucket, Boolean inStock) {
+        Map<Long, Integer> categories = new TreeMap<>();
+        int[] buckets = new int[bucketLabels.length];
+        int[] availability = new int[2];
+
+        for (Map.Entry<Long, int[][]> entry : counts.entrySet()) {
+            int[][] matrix = entry.getValue();
+            int categoryCount = sum(matrix, priceBucket, inStock);
+            if (categoryCount > 0) {
+                categories.put(entry.getKey(), categoryCount);
+            }
+            if (categoryId != null && !categoryId.equals(entry.getKey())) {
+                continue;
+            }
+            for (int b = 0; b < matrix.length; b++) {
+                buckets[b] += sum(matrix, b, inStock);
+                if (priceBucket < 0 || priceBucket == b) {
+                    availability[0] += matrix[b][0];
+                    availability[1] += matrix[b][1];
+                }
+            }
+        }
+
+        Map<String, Integer> priceRanges = new LinkedHashMap<>();
+        for (int b = 0; b < bucketLabels.length; b++) {
+            priceRanges.put(bucketLabels[b], buckets[b]);
+        }
+        return Map.of(
+                "categories", categories,
+                "priceRanges", priceRanges,
+                "availability", Map.of("inStock", availability[1], "outOfStock", availability[0])
+        );
+    }
+
+    private static int sum(int[][] matrix, int priceBucket, Boolean inStock) {
+        int total = 0;
+        for (int b = 0; b < matrix.length; b++) {
+            if (priceBucket >= 0 && priceBucket != b) {
+                continue;
+            }
+            if (inStock == null || !inStock) {
+                total += matrix[b][0];
+            }
+            if (inStock == null || inStock) {
+                total += matrix[b][1];
+            }
+        }
+        return total;
+    }
+
+    private int bucketOf(BigDecimal price) {
+        for (int i = 0; i < bucketBounds.length; i++) {
+            if (price.compareTo(bucketBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return bucketBounds.length;
+    }
+
+    private static int stockSlot(ProductSummary product) {
+        return product.getStockQuantity() != null && product.getStockQuantity() > 0 ? 1 : 0;
+    }
+
+    public static class Result {
+        private final List<ProductSummary> products;
+        private final int totalMatches;
+        private final Map<String, Object> facets;
+
+        Result(List<ProductSummary> products, int totalMatches, Map<String, Object> facets) {
+            this.products = products;
+            this.totalMatches = totalMatches;
+            this.facets = facets;
+        }
+
+        // May hold one product past the requested limit
+        public List<ProductSummary> getProducts() { return products; }
+
+        public int getTotalMatches() { return totalMatches; }
+
+        public Map<String, Object> getFacets() { return facets; }
+    }
+}
@@ -0,0 +1,240 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.dto.ProductSearchResult;
+import com.echocart.backend.dto.ProductSummary;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description, ranked with BM25F
+ * (name matches weigh more than description matches). Built from the database once
+ * at startup and then kept current from committed {@link ProductChangedEvent}s, plus
+ * {@link ProductStockChangedEvent}s for the stock shown in the result summaries.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double NAME_B = 0.5;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double DESCRIPTION_B = 0.75;
+
+    private final ProductService productService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> productId -> {name tf, description tf}
+    private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    public ProductSearchIndex(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalNameLength = 0;
+            totalDescriptionLength = 0;
+            productService.streamAllProducts(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getProductId());
+            if (event.getType() != ProductChangedEvent.Type.DELETED) {
+                addDocument(event.getProduct());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            IndexedProduct doc = documents.get(event.getProductId());
+            if (doc == null) {
+                return;
+            }
+            int stock = doc.summary.getStockQuantity() == null ? 0 : doc.summary.getStockQuantity();
+            // Only the summary changes; the postings and lengths stay as they are
+            doc.summary = doc.summary.withStockQuantity(Math.max(0, stock + event.getDelta()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResult search(String query, Long categoryId, BigDecimal minPrice,
+                                      BigDecimal maxPrice, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new ProductSearchResult(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new ProductSearchResult(List.of(), 0);
+            }
+            double avgNameLength = Math.max(1.0, (double) totalNameLength / documentCount);
+            double avgDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / documentCount);
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, int[]> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+
+                for (Map.Entry<Long, int[]> posting : termPostings.entrySet()) {
+                    IndexedProduct doc = documents.get(posting.getKey());
+                    if (!doc.matches(categoryId, minPrice, maxPrice)) {
+                        continue;
+                    }
+                    int[] tf = posting.getValue();
+                    double weightedTf =
+                            NAME_WEIGHT * tf[0] / (1 - NAME_B + NAME_B * doc.nameLength / avgNameLength)
+                            + DESCRIPTION_WEIGHT * tf[1] / (1 - DESCRIPTION_B + DESCRIPTION_B * doc.descriptionLength / avgDescriptionLength);
+                    scores.merge(posting.getKey(), idf * weightedTf / (K1 + weightedTf), Double::sum);
+                }
+            }
+
+            // Bounded min-heap keeps top-N selection at O(matches * log N)
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(
+                    Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue)
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<ProductSearchResult.Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Long, Double> entry = top.poll();
+                hits.add(new ProductSearchResult.Hit(documents.get(entry.getKey()).summary, entry.getValue()));
+            }
+            Collections.reverse(hits);
+            return new ProductSearchResult(hits, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void addDocument(Product product) {
+        List<String> nameTerms = Tokenizer.tokenize(product.getName());
+        List<String> descriptionTerms = Tokenizer.tokenize(product.getDescription());
+
+        Long productId = product.getProductId();
+        for (String term : nameTerms) {
+            postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .computeIfAbsent(productId, id -> new int[2])[0]++;
+        }
+        for (String term : descriptionTerms) {
+            postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .computeIfAbsent(productId, id -> new int[2])[1]++;
+        }
+
+        Set<String> terms = new LinkedHashSet<>(nameTerms);
+        terms.addAll(descriptionTerms);
+        documents.put(productId, new IndexedProduct(ProductSummary.of(product),
+                nameTerms.size(), descriptionTerms.size(), terms.toArray(new String[0])));
+        totalNameLength += nameTerms.size();
+        totalDescriptionLength += descriptionTerms.size();
+    }
+
+    // Callers must hold the write lock
+    private void removeDocument(Long productId) {
+        IndexedProduct doc = documents.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalNameLength -= doc.nameLength;
+        totalDescriptionLength -= doc.descriptionLength;
+    }
+
+    private static final class IndexedProduct {
+        // Replaced under the write lock when stock moves
+        ProductSummary summary;
+        final int nameLength;
+        final int descriptionLength;
+        final String[] terms;
+
+        IndexedProduct(ProductSummary summary, int nameLength, int descriptionLength, String[] terms) {
+            this.summary = summary;
+            this.nameLength = nameLength;
+            this.descriptionLength = descriptionLength;
+            this.terms = terms;
+        }
+
+        boolean matches(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+            if (categoryId != null && !categoryId.equals(summary.getCategoryId())) {
+                return false;
+            }
+            if (minPrice != null && summary.getPrice().compareTo(minPrice) < 0) {
+                return false;
+            }
+            return maxPrice == null || summary.getPrice().compareTo(maxPrice) <= 0;
+        }
+    }
+}
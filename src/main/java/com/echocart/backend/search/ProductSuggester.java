@@ -0,0 +1,413 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.dto.ProductSummary;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.repository.CartRepository;
+import com.echocart.backend.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead over product names. A character trie keyed on the normalized name and on
+ * every word start inside it ("smart phone" is reachable from "sma" and "pho"), where
+ * each node keeps its own top-N entries by popularity. A lookup is a walk of at most
+ * {@code maxKeyLength} nodes plus a copy of that node's list, with no per-keystroke
+ * scoring or sorting.
+ *
+ * Popularity is the number of carts a product has been added to, seeded from the cart
+ * table at startup and bumped as customers add to cart.
+ */
+@Component
+public class ProductSuggester {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggester.class);
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final ProductService productService;
+    private final CartRepository cartRepository;
+    private final int capacity;
+    private final int maxKeyLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private Node root = new Node();
+
+    public ProductSuggester(ProductService productService, CartRepository cartRepository,
+                            @Value("${echocart.suggest.max-results:10}") int capacity,
+                            @Value("${echocart.suggest.max-prefix-length:24}") int maxKeyLength) {
+        this.productService = productService;
+        this.cartRepository = cartRepository;
+        this.capacity = capacity;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> popularity = new HashMap<>();
+        for (Object[] row : cartRepository.countCartsByProduct()) {
+            popularity.put((Long) row[0], (Long) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            entries.clear();
+            productService.streamAllProducts(product ->
+                    insert(product, popularity.getOrDefault(product.getProductId(), 0L)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product suggester built: {} products in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(event.getProductId());
+            long popularity = existing == null ? 0 : existing.popularity;
+            if (existing != null) {
+                remove(existing);
+            }
+            if (event.getType() != ProductChangedEvent.Type.DELETED) {
+                insert(event.getProduct(), popularity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(event.getProductId());
+            if (entry == null) {
+                return;
+            }
+            // The nodes hold the entry itself, so swapping its summary updates every list
+            int stock = entry.summary.getStockQuantity() == null ? 0 : entry.summary.getStockQuantity();
+            entry.summary = entry.summary.withStockQuantity(Math.max(0, stock + event.getDelta()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordPopularity(Long productId, long delta) {
+        if (delta <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(productId);
+            if (entry == null) {
+                return;
+            }
+            // Popularity only grows here, so each node can reorder in place
+            entry.popularity += delta;
+            for (String key : entry.keys) {
+                Node node = root;
+                for (int i = 0; i < key.length() && node != null; i++) {
+                    node = node.child(key.charAt(i));
+                    if (node != null) {
+                        node.offer(entry, capacity);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSummary> suggest(String prefix, int limit) {
+        if (prefix == null) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Normalize while walking so the lookup allocates nothing until the result list
+            Node node = root;
+            int depth = 0;
+            boolean started = false;
+            boolean pendingSpace = false;
+            for (int i = 0; i < prefix.length() && depth < maxKeyLength; i++) {
+                char c = prefix.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    pendingSpace = started;
+                    continue;
+                }
+                if (pendingSpace) {
+                    node = node.child(' ');
+                    pendingSpace = false;
+                    if (node == null || ++depth >= maxKeyLength) {
+                        break;
+                    }
+                }
+                node = node.child(Character.toLowerCase(c));
+                depth++;
+                started = true;
+                if (node == null) {
+                    break;
+                }
+            }
+            // A trailing space means the user finished a word, so only multi-word names match
+            if (node != null && pendingSpace && depth < maxKeyLength) {
+                node = node.child(' ');
+            }
+            if (!started || node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(limit, node.topCount);
+            List<ProductSummary> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(node.top[i].summary);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void insert(Product product, long popularity) {
+        Entry entry = new Entry(ProductSummary.of(product), keysFor(product.getName()), popularity);
+        entries.put(product.getProductId(), entry);
+
+        for (String key : entry.keys) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                node.offer(entry, capacity);
+            }
+            node.addTerminal(entry);
+        }
+    }
+
+    // Callers must hold the write lock
+    private void remove(Entry entry) {
+        entries.remove(entry.summary.getProductId());
+
+        for (String key : entry.keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            int depth = 0;
+            while (depth < key.length() && path[depth] != null) {
+                path[depth + 1] = path[depth].child(key.charAt(depth));
+                depth++;
+            }
+            if (path[depth] == null) {
+                continue;
+            }
+            path[depth].removeTerminal(entry);
+
+            // Rebuild top lists bottom-up, pruning nodes that no longer lead anywhere
+            for (int i = depth; i > 0; i--) {
+                Node node = path[i];
+                if (node.indexOf(entry) >= 0) {
+                    node.recompute(capacity);
+                }
+                if (node.isEmpty()) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    private List<String> keysFor(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i, Math.min(normalized.length(), i + maxKeyLength)).trim());
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    // Lower-case alphanumerics, every other run of characters collapsed to one space
+    private static String normalize(String text) {
+        StringBuilder sb = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = sb.length() > 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean ranksAbove(Entry a, Entry b) {
+        if (a.popularity != b.popularity) {
+            return a.popularity > b.popularity;
+        }
+        return a.summary.getProductId() < b.summary.getProductId();
+    }
+
+    private static final class Entry {
+        ProductSummary summary;
+        final List<String> keys;
+        long popularity;
+
+        Entry(ProductSummary summary, List<String> keys, long popularity) {
+            this.summary = summary;
+            this.keys = keys;
+            this.popularity = popularity;
+        }
+    }
+
+    private static final class Node {
+        // Children sorted by character for binary search
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+
+        // Best entries reachable through this node, best first
+        Entry[] top = NO_ENTRIES;
+        int topCount;
+
+        // Entries whose (possibly truncated) key ends exactly here
+        Entry[] terminals = NO_ENTRIES;
+        int terminalCount;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            if (childCount == keys.length) {
+                int newLength = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, newLength);
+                children = Arrays.copyOf(children, newLength);
+            }
+            System.arraycopy(keys, at, keys, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            Node node = new Node();
+            keys[at] = c;
+            children[at] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(keys, i + 1, keys, i, childCount - i - 1);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            children[--childCount] = null;
+        }
+
+        boolean isEmpty() {
+            return childCount == 0 && terminalCount == 0;
+        }
+
+        int indexOf(Entry entry) {
+            for (int i = 0; i < topCount; i++) {
+                if (top[i] == entry) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void offer(Entry entry, int capacity) {
+            int pos = indexOf(entry);
+            if (pos < 0) {
+                if (top.length < capacity) {
+                    top = Arrays.copyOf(top, capacity);
+                }
+                if (topCount < capacity) {
+                    pos = topCount++;
+                } else if (ranksAbove(entry, top[capacity - 1])) {
+                    pos = capacity - 1;
+                } else {
+                    return;
+                }
+            }
+            while (pos > 0 && ranksAbove(entry, top[pos - 1])) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = entry;
+        }
+
+        void recompute(int capacity) {
+            Arrays.fill(top, 0, topCount, null);
+            topCount = 0;
+            for (int i = 0; i < terminalCount; i++) {
+                offer(terminals[i], capacity);
+            }
+            for (int c = 0; c < childCount; c++) {
+                Node child = children[c];
+                for (int i = 0; i < child.topCount; i++) {
+                    offer(child.top[i], capacity);
+                }
+            }
+        }
+
+        void addTerminal(Entry entry) {
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, Math.max(1, terminalCount * 2));
+            }
+            terminals[terminalCount++] = entry;
+        }
+
+        void removeTerminal(Entry entry) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == entry) {
+                    terminals[i] = terminals[--terminalCount];
+                    terminals[terminalCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.echocart.backend.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased alphanumeric terms and drops common English stop words.
+ * Queries and documents must go through the same tokenizer.
+ */
+public final class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "that", "the", "to", "with"
+    );
+
+    private Tokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (!STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
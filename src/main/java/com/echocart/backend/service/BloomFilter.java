@@ -0,0 +1,80 @@
+package com.echocart.backend.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter on an AtomicLongArray; the k bit positions come from two
+ * 64-bit hashes combined by double hashing.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final LongAdder insertions = new LongAdder();
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void put(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long value = words.get(word);
+            while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                value = words.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int hashFunctions() {
+        return hashes;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    // (1 - e^(-kn/m))^k for the values inserted so far
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashes * (double) insertions.sum() / bits), hashes);
+    }
+
+    // FNV-1a over the UTF-16 chars, finished with the murmur3 64-bit mix
+    private static long hash(String key, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
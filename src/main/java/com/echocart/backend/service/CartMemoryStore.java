@@ -0,0 +1,305 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Cart;
+import com.echocart.backend.repository.CartRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds every cart in memory (userId -> productId -> line) and writes changes back to
+ * the cart table in JDBC batches from a background thread, either every
+ * {@code flush-interval-ms} or as soon as {@code flush-threshold} changes are pending.
+ * The store is loaded from the table on startup and flushed once more on shutdown.
+ *
+ * Cart ids are handed out here (seeded from MAX(cart_id)), so this mode assumes a
+ * single application instance owns the cart table.
+ */
+@Component
+@ConditionalOnProperty(name = "echocart.cart.store", havingValue = "memory")
+public class CartMemoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartMemoryStore.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO cart (cart_id, user_id, product_id, quantity) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+    private static final String DELETE_SQL = "DELETE FROM cart WHERE cart_id = ?";
+
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushIntervalMs;
+    private final int flushThreshold;
+
+    private final Map<Long, Map<Long, Cart>> carts = new ConcurrentHashMap<>();
+    private final Map<Long, Long> cartOwners = new ConcurrentHashMap<>();
+    private final AtomicLong nextCartId = new AtomicLong(1);
+
+    // cartId -> latest state to persist; a null quantity means delete
+    private final Map<Long, CartRow> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CartMemoryStore(CartRepository cartRepository, JdbcTemplate jdbcTemplate,
+                           @Value("${echocart.cart.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${echocart.cart.flush-threshold:500}") int flushThreshold) {
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushThreshold = flushThreshold;
+    }
+
+    @PostConstruct
+    public void load() {
+        long maxId = 0;
+        for (Cart cart : cartRepository.findAll()) {
+            carts.computeIfAbsent(cart.getUserId(), id -> new ConcurrentHashMap<>())
+                    .put(cart.getProductId(), copy(cart));
+            cartOwners.put(cart.getCartId(), cart.getUserId());
+            maxId = Math.max(maxId, cart.getCartId());
+        }
+        nextCartId.set(maxId + 1);
+        log.info("Cart store loaded {} lines for {} users", cartOwners.size(), carts.size());
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Cart store flushed on shutdown");
+    }
+
+    public boolean hasUser(Long userId) {
+        return carts.containsKey(userId);
+    }
+
+    public Result add(Long userId, Long productId, int quantity) {
+        return add(userId, productId, quantity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds {@code quantity} to the user's line for the product, creating the line if needed,
+     * unless the line would then hold more than {@code maxQuantity}. Returns a copy of the
+     * line and whether it was newly created, or null if the add was refused.
+     */
+    public Result add(Long userId, Long productId, int quantity, int maxQuantity) {
+        Map<Long, Cart> lines = carts.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+        synchronized (lines) {
+            Cart line = lines.get(productId);
+            boolean created = line == null;
+            // Checked under the lock, so concurrent adds see each other's quantities
+            if ((created ? 0 : line.getQuantity()) + quantity > maxQuantity) {
+                return null;
+            }
+            if (created) {
+                line = new Cart(userId, productId, quantity);
+                line.setCartId(nextCartId.getAndIncrement());
+                lines.put(productId, line);
+                cartOwners.put(line.getCartId(), userId);
+            } else {
+                line.setQuantity(line.getQuantity() + quantity);
+            }
+            markDirty(new CartRow(line.getCartId(), userId, productId, line.getQuantity()));
+            return new Result(copy(line), created);
+        }
+    }
+
+    /**
+     * Removes one line; returns a copy of it, or null if there is no such line.
+     */
+    public Cart remove(Long cartId) {
+        Long userId = cartOwners.get(cartId);
+        if (userId == null) {
+            return null;
+        }
+        Map<Long, Cart> lines = carts.get(userId);
+        synchronized (lines) {
+            Cart removed = null;
+            for (Cart line : lines.values()) {
+                if (line.getCartId().equals(cartId)) {
+                    removed = line;
+                    break;
+                }
+            }
+            if (removed == null) {
+                return null;
+            }
+            lines.remove(removed.getProductId());
+            cartOwners.remove(cartId);
+            markDirty(new CartRow(cartId, userId, null, null));
+            return copy(removed);
+        }
+    }
+
+    /**
+     * Removes the given lines (cartId -> quantity) all or nothing: returns the removed
+     * lines, or null without touching the cart if any is missing or has another quantity.
+     */
+    public List<Cart> removeLines(Long userId, Map<Long, Integer> expected) {
+        Map<Long, Cart> lines = carts.get(userId);
+        if (lines == null) {
+            return expected.isEmpty() ? new ArrayList<>() : null;
+        }
+        synchronized (lines) {
+            List<Cart> matched = new ArrayList<>(expected.size());
+            for (Cart line : lines.values()) {
+                if (line.getQuantity().equals(expected.get(line.getCartId()))) {
+                    matched.add(line);
+                }
+            }
+            if (matched.size() != expected.size()) {
+                return null;
+            }
+            for (Cart line : matched) {
+                lines.remove(line.getProductId());
+                cartOwners.remove(line.getCartId());
+                markDirty(new CartRow(line.getCartId(), userId, null, null));
+            }
+            return matched;
+        }
+    }
+
+    public List<Cart> getLines(Long userId) {
+        Map<Long, Cart> lines = carts.get(userId);
+        if (lines == null) {
+            return new ArrayList<>();
+        }
+        List<Cart> copies = new ArrayList<>();
+        synchronized (lines) {
+            for (Cart line : lines.values()) {
+                copies.add(copy(line));
+            }
+        }
+        copies.sort(Comparator.comparing(Cart::getCartId));
+        return copies;
+    }
+
+    public int getQuantity(Long userId, Long productId) {
+        Map<Long, Cart> lines = carts.get(userId);
+        if (lines == null) {
+            return 0;
+        }
+        synchronized (lines) {
+            Cart line = lines.get(productId);
+            return line == null ? 0 : line.getQuantity();
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Writes every pending change in two JDBC batches: deletes first, so a line that was
+     * removed and re-added under a new id cannot trip the (user_id, product_id) key.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            List<CartRow> upserts = new ArrayList<>();
+            List<CartRow> deletes = new ArrayList<>();
+            for (Long cartId : pending.keySet()) {
+                CartRow row = pending.remove(cartId);
+                if (row == null) {
+                    continue;
+                }
+                pendingCount.decrementAndGet();
+                (row.quantity() == null ? deletes : upserts).add(row);
+            }
+            if (upserts.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+
+            try {
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, deletes, deletes.size(),
+                            (ps, row) -> ps.setLong(1, row.cartId()));
+                }
+                if (!upserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, upserts, upserts.size(), (ps, row) -> {
+                        ps.setLong(1, row.cartId());
+                        ps.setLong(2, row.userId());
+                        ps.setLong(3, row.productId());
+                        ps.setInt(4, row.quantity());
+                    });
+                }
+            } catch (RuntimeException e) {
+                // Put the rows back unless a newer change for the same line arrived meanwhile
+                deletes.forEach(this::requeue);
+                upserts.forEach(this::requeue);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Cart write-behind flush failed, {} changes will be retried", pendingCount.get(), e);
+        }
+    }
+
+    private void markDirty(CartRow row) {
+        if (pending.put(row.cartId(), row) == null
+                && pendingCount.incrementAndGet() >= flushThreshold
+                && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush picks this change up
+            }
+        }
+    }
+
+    private void requeue(CartRow row) {
+        if (pending.putIfAbsent(row.cartId(), row) == null) {
+            pendingCount.incrementAndGet();
+        }
+    }
+
+    private static Cart copy(Cart line) {
+        Cart copy = new Cart(line.getUserId(), line.getProductId(), line.getQuantity());
+        copy.setCartId(line.getCartId());
+        return copy;
+    }
+
+    private record CartRow(Long cartId, Long userId, Long productId, Integer quantity) {}
+
+    public record Result(Cart line, boolean created) {}
+}
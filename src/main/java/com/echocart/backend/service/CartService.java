@@ -1,5 +1,7 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.CartLineItem;
+import com.echocart.backend.dto.CartSummary;
 import com.echocart.backend.entity.Cart;
 import java.util.List;
 
@@ -7,4 +9,7 @@ public interface CartService {
     Cart addToCart(Cart cart);
     void removeFromCart(Long cartId);
     List<Cart> getCartDetails(Long userId);
+    CartSummary getCartSummary(Long userId);
+    // Removes exactly these lines, at the quantities read; false if any changed in between
+    boolean removeCartLines(Long userId, List<CartLineItem> lines);
 }
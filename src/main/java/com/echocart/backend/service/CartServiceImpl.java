@@ -1,42 +1,74 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.CartLineItem;
+import com.echocart.backend.dto.CartSummary;
 import com.echocart.backend.entity.Cart;
+import com.echocart.backend.entity.InventoryReservation;
 import com.echocart.backend.entity.Product;
 import com.echocart.backend.repository.CartRepository;
-import com.echocart.backend.repository.UserRepository;
-import com.echocart.backend.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 @Transactional
+@ConditionalOnProperty(name = "echocart.cart.store", havingValue = "database", matchIfMissing = true)
 public class CartServiceImpl implements CartService {
 
-    private final CartRepository cartRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
+    private static final String DELETE_LINE_SQL = "DELETE FROM cart WHERE cart_id = ? AND quantity = ?";
+    private static final String LOCK_USER_SQL = "SELECT user_id FROM users WHERE user_id = ? FOR UPDATE";
+
+    // Both statements check the line's total after the add against the product's stock,
+    // so two adds racing on one line cannot together put more in the cart than exists.
+    // The last parameter adds the units a hot product has leased out of its row.
+    private static final String MERGE_LINE_SQL =
+            "UPDATE cart c JOIN products p ON p.product_id = c.product_id " +
+            "SET c.quantity = c.quantity + ? " +
+            "WHERE c.user_id = ? AND c.product_id = ? AND c.quantity + ? <= p.stock_quantity + ?";
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO cart (user_id, product_id, quantity) " +
+            "SELECT u.user_id, p.product_id, ? FROM users u JOIN products p ON p.product_id = ? " +
+            "WHERE u.user_id = ? AND p.stock_quantity + ? >= ?";
+    // With cart holds the stock is checked by the hold itself; 0 rows = no such user
+    private static final String UPSERT_LINE_SQL =
+            "INSERT INTO cart (user_id, product_id, quantity) " +
+            "SELECT u.user_id, ?, ? FROM users u WHERE u.user_id = ? " +
+            "ON DUPLICATE KEY UPDATE quantity = cart.quantity + VALUES(quantity)";
 
-    public CartServiceImpl(CartRepository cartRepository, UserRepository userRepository,
-                           ProductRepository productRepository) {
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductService productService;
+    private final SearchService searchService;
+    private final InventoryService inventoryService;
+    private final HotStockPool hotStockPool;
+    private final boolean holdCartStock;
+
+    public CartServiceImpl(CartRepository cartRepository, JdbcTemplate jdbcTemplate,
+                           ProductService productService, SearchService searchService,
+                           InventoryService inventoryService, HotStockPool hotStockPool,
+                           @Value("${echocart.inventory.hold-cart-stock:false}") boolean holdCartStock) {
         this.cartRepository = cartRepository;
-        this.userRepository = userRepository;
-        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.productService = productService;
+        this.searchService = searchService;
+        this.inventoryService = inventoryService;
+        this.hotStockPool = hotStockPool;
+        this.holdCartStock = holdCartStock;
     }
 
     @Override
     public Cart addToCart(Cart cart) {
         validateCart(cart);
 
-        // Verify user exists
-        if (!userRepository.existsById(cart.getUserId())) {
-            throw new RuntimeException("User not found with ID: " + cart.getUserId());
-        }
-
-        // Verify product exists and check stock
-        Optional<Product> productOpt = productRepository.findById(cart.getProductId());
+        // Verify product exists and check stock (served from the product cache when warm)
+        Optional<Product> productOpt = productService.findProduct(cart.getProductId());
         if (productOpt.isEmpty()) {
             throw new RuntimeException("Product not found with ID: " + cart.getProductId());
         }
@@ -46,16 +78,24 @@ public class CartServiceImpl implements CartService {
             throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
         }
 
-        // Check if item already exists in cart for this user and product
-        List<Cart> existingCarts = cartRepository.findByUserId(cart.getUserId());
-        for (Cart existingCart : existingCarts) {
-            if (existingCart.getProductId().equals(cart.getProductId())) {
-                existingCart.setQuantity(existingCart.getQuantity() + cart.getQuantity());
-                return cartRepository.save(existingCart);
-            }
+        lockUser(cart.getUserId());
+
+        boolean created;
+        if (holdCartStock) {
+            // Each add holds its own units, so the line can never hold more than there was
+            inventoryService.reserveStock(cart.getProductId(), cart.getQuantity(), InventoryReservation.Type.CART,
+                    InventoryReservation.cartReference(cart.getUserId()));
+            created = upsertLine(cart.getUserId(), cart.getProductId(), cart.getQuantity());
+        } else {
+            created = addToLine(cart.getUserId(), cart.getProductId(), cart.getQuantity());
+        }
+        if (created) {
+            // Popularity counts carts holding the product, so only new lines count
+            searchService.recordProductInterest(cart.getProductId());
         }
 
-        return cartRepository.save(cart);
+        return cartRepository.findByUserIdAndProductId(cart.getUserId(), cart.getProductId())
+                .orElseThrow(() -> new RuntimeException("Cart item not found after update"));
     }
 
     @Override
@@ -64,11 +104,14 @@ public class CartServiceImpl implements CartService {
             throw new IllegalArgumentException("Cart ID cannot be null");
         }
 
-        if (!cartRepository.existsById(cartId)) {
-            throw new RuntimeException("Cart item not found with ID: " + cartId);
-        }
+        Cart line = cartRepository.findById(cartId)
+                .orElseThrow(() -> new RuntimeException("Cart item not found with ID: " + cartId));
 
         cartRepository.deleteById(cartId);
+        if (holdCartStock) {
+            inventoryService.releaseByReference(InventoryReservation.cartReference(line.getUserId()),
+                    line.getProductId());
+        }
     }
 
     @Override
@@ -81,6 +124,105 @@ public class CartServiceImpl implements CartService {
         return cartRepository.findByUserId(userId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CartSummary getCartSummary(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+
+        List<CartLineItem> lines = cartRepository.findCartLines(userId);
+        List<CartLineItem> items = new ArrayList<>(lines.size());
+        for (CartLineItem line : lines) {
+            // The join reads the row; hot products also have units leased into the pool
+            int pooled = hotStockPool.pooled(line.getProductId());
+            items.add(pooled == 0 ? line : line.withStockQuantity(line.getStockQuantity() + pooled));
+        }
+        return new CartSummary(userId, items);
+    }
+
+    @Override
+    public boolean removeCartLines(Long userId, List<CartLineItem> lines) {
+        if (lines.isEmpty()) {
+            return true;
+        }
+
+        // Matching on quantity as well means a concurrent add or a second checkout of the
+        // same cart deletes nothing here, and the caller rolls back instead of losing it
+        int[][] deleted = jdbcTemplate.batchUpdate(DELETE_LINE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, line.getCartId());
+            ps.setInt(2, line.getQuantity());
+        });
+        for (int count : deleted[0]) {
+            if (count == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds to the user's existing line or inserts a new one, in each case only while the
+     * line's new total fits the stock. Returns true if a line was created.
+     */
+    private boolean addToLine(Long userId, Long productId, int quantity) {
+        int pooled = hotStockPool.pooled(productId);
+        if (jdbcTemplate.update(MERGE_LINE_SQL, quantity, userId, productId, quantity, pooled) == 1) {
+            return false;
+        }
+        try {
+            if (jdbcTemplate.update(INSERT_LINE_SQL, quantity, productId, userId, pooled, quantity) == 1) {
+                return true;
+            }
+        } catch (DuplicateKeyException e) {
+            // The line exists (the merge found the stock short), or one was created
+            // outside the user lock, e.g. by a cart hold's upsert: merge once more before
+            // deciding the stock is short
+            if (jdbcTemplate.update(MERGE_LINE_SQL, quantity, userId, productId, quantity, pooled) == 1) {
+                return false;
+            }
+            throw insufficientStock(userId, productId);
+        }
+        throw insufficientStock(userId, productId);
+    }
+
+    /**
+     * Adds to the user's line or creates it, without a stock check. Returns true if a
+     * line was created.
+     */
+    private boolean upsertLine(Long userId, Long productId, int quantity) {
+        int affected = jdbcTemplate.update(UPSERT_LINE_SQL, productId, quantity, userId);
+        if (affected == 0) {
+            throw new RuntimeException("User not found with ID: " + userId);
+        }
+        return affected == 1;
+    }
+
+    /**
+     * Locks the user's row until the transaction ends, so one user's adds run one at a
+     * time. Without it, two adds creating the same line both wait on the
+     * uk_cart_user_product entry the first inserts, and InnoDB rolls one back as a deadlock.
+     */
+    private void lockUser(Long userId) {
+        if (jdbcTemplate.queryForList(LOCK_USER_SQL, Long.class, userId).isEmpty()) {
+            throw new RuntimeException("User not found with ID: " + userId);
+        }
+    }
+
+    private RuntimeException insufficientStock(Long userId, Long productId) {
+        Integer stock = stockOf(productId);
+        int inCart = cartRepository.findByUserIdAndProductId(userId, productId)
+                .map(Cart::getQuantity).orElse(0);
+        return new RuntimeException("Insufficient stock. Available: " + (stock == null ? 0 : stock)
+                + (inCart > 0 ? ", already in cart: " + inCart : ""));
+    }
+
+    private Integer stockOf(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "SELECT stock_quantity FROM products WHERE product_id = ?", Integer.class, productId);
+        return stock.isEmpty() ? null : stock.get(0) + hotStockPool.pooled(productId);
+    }
+
     private void validateCart(Cart cart) {
         if (cart.getUserId() == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -0,0 +1,209 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.User;
+import com.echocart.backend.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Users by role, orders by status and the product count for the admin dashboard, kept
+ * in memory so a dashboard refresh runs no queries.
+ *
+ * The user and order services report their writes here; changes are applied once the
+ * transaction commits, so a rollback leaves the counts alone. Products follow the
+ * ProductChangedEvents. Seeded at startup and reconciled every reconcile-interval-ms
+ * with three grouped COUNTs, which also absorbs writes made by other instances or
+ * directly in the database.
+ *
+ * Reconciling adds the difference between the database count and the counter as read
+ * just before the query, so an update that lands while the query runs is not wiped out.
+ * It is not atomic, though: a write that committed before the query but reaches its
+ * counter only after that read is counted twice. Counters can therefore be off by the
+ * writes that raced with a reconcile until the next one corrects them; lastDrift in the
+ * snapshot shows how far off the last run found them.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<User.Role, LongAdder> usersByRole = new EnumMap<>(User.Role.class);
+    private final Map<Order.Status, LongAdder> ordersByStatus = new EnumMap<>(Order.Status.class);
+    private final LongAdder products = new LongAdder();
+
+    private volatile long lastReconciledAt;
+    private volatile long lastDrift;
+
+    public DashboardCounters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (User.Role role : User.Role.values()) {
+            usersByRole.put(role, new LongAdder());
+        }
+        for (Order.Status status : Order.Status.values()) {
+            ordersByStatus.put(status, new LongAdder());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${echocart.dashboard.reconcile-interval-ms:300000}",
+            fixedDelayString = "${echocart.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            long drift = 0;
+
+            Map<User.Role, Long> before = sums(usersByRole);
+            Map<String, Long> roles = groupCounts("SELECT role, COUNT(*) FROM users GROUP BY role");
+            for (User.Role role : User.Role.values()) {
+                drift += correct(usersByRole.get(role), before.get(role), roles.getOrDefault(role.name(), 0L));
+            }
+
+            Map<Order.Status, Long> beforeOrders = sums(ordersByStatus);
+            Map<String, Long> statuses = groupCounts("SELECT status, COUNT(*) FROM orders GROUP BY status");
+            for (Order.Status status : Order.Status.values()) {
+                drift += correct(ordersByStatus.get(status), beforeOrders.get(status),
+                        statuses.getOrDefault(status.name(), 0L));
+            }
+
+            long beforeProducts = products.sum();
+            Long productCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            drift += correct(products, beforeProducts, productCount == null ? 0 : productCount);
+
+            // The first run is the seed, so its "drift" is just the starting counts
+            if (lastReconciledAt != 0 && drift != 0) {
+                log.info("Dashboard counters corrected by {} against the database", drift);
+            }
+            lastDrift = lastReconciledAt == 0 ? 0 : drift;
+            lastReconciledAt = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            log.error("Dashboard counter reconciliation failed", e);
+        }
+    }
+
+    public void userAdded(User.Role role) {
+        afterCommit(() -> usersByRole.get(role).increment());
+    }
+
+    public void userRemoved(User.Role role) {
+        afterCommit(() -> usersByRole.get(role).decrement());
+    }
+
+    public void userRoleChanged(User.Role from, User.Role to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            usersByRole.get(from).decrement();
+            usersByRole.get(to).increment();
+        });
+    }
+
+    public void orderAdded(Order.Status status) {
+        afterCommit(() -> ordersByStatus.get(status).increment());
+    }
+
+    public void ordersMoved(Order.Status from, Order.Status to, int count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            ordersByStatus.get(from).add(-count);
+            ordersByStatus.get(to).add(count);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            products.increment();
+        } else if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            products.decrement();
+        }
+    }
+
+    /**
+     * Same shape as the dashboard used to build from COUNT queries.
+     */
+    public Map<String, Object> snapshot() {
+        long customers = usersByRole.get(User.Role.CUSTOMER).sum();
+        long admins = usersByRole.get(User.Role.ADMIN).sum();
+        Map<Order.Status, Long> orders = sums(ordersByStatus);
+        long totalOrders = orders.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> dashboard = new HashMap<>();
+        dashboard.put("users", Map.of(
+                "total", customers + admins,
+                "customers", customers,
+                "admins", admins
+        ));
+        dashboard.put("orders", Map.of(
+                "total", totalOrders,
+                "pending", orders.get(Order.Status.PENDING),
+                "shipped", orders.get(Order.Status.SHIPPED),
+                "delivered", orders.get(Order.Status.DELIVERED),
+                "cancelled", orders.get(Order.Status.CANCELLED)
+        ));
+        dashboard.put("products", Map.of(
+                "total", products.sum()
+        ));
+        dashboard.put("countsAsOf", Map.of(
+                "reconciledAt", lastReconciledAt,
+                "lastDrift", lastDrift
+        ));
+        return dashboard;
+    }
+
+    private Map<String, Long> groupCounts(String sql) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    private static long correct(LongAdder counter, long before, long actual) {
+        long drift = actual - before;
+        if (drift != 0) {
+            counter.add(drift);
+        }
+        return Math.abs(drift);
+    }
+
+    private static <K extends Enum<K>> Map<K, Long> sums(Map<K, LongAdder> counters) {
+        Map<K, Long> sums = new HashMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
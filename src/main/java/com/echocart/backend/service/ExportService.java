@@ -0,0 +1,18 @@
+package com.echocart.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ExportService {
+
+    enum Format {
+        CSV, NDJSON,
+        // {"success": true, "<name>": [...]} - the envelope of the original admin list endpoints
+        JSON
+    }
+
+    void exportOrders(OutputStream out, Format format, LocalDate from, LocalDate to) throws IOException;
+    void exportUsers(OutputStream out, Format format) throws IOException;
+    void exportProducts(OutputStream out, Format format) throws IOException;
+}
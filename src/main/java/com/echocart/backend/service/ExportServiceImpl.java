@@ -0,0 +1,213 @@
+package com.echocart.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes whole tables straight from a forward-only JDBC cursor to an output stream.
+ * Rows are never mapped to entities or collected: each one is formatted and written as
+ * it arrives, so memory use does not depend on table size.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<Column> ORDER_COLUMNS = List.of(
+            new Column("orderId", "order_id", Kind.NUMBER),
+            new Column("userId", "user_id", Kind.NUMBER),
+            new Column("totalAmount", "total_amount", Kind.NUMBER),
+            new Column("orderDate", "order_date", Kind.DATE),
+            new Column("status", "status", Kind.TEXT));
+
+    // Never the password hash
+    private static final List<Column> USER_COLUMNS = List.of(
+            new Column("userId", "user_id", Kind.NUMBER),
+            new Column("username", "username", Kind.TEXT),
+            new Column("email", "email", Kind.TEXT),
+            new Column("role", "role", Kind.TEXT));
+
+    private static final List<Column> PRODUCT_COLUMNS = List.of(
+            new Column("productId", "product_id", Kind.NUMBER),
+            new Column("name", "name", Kind.TEXT),
+            new Column("description", "description", Kind.TEXT),
+            new Column("price", "price", Kind.NUMBER),
+            new Column("categoryId", "category_id", Kind.NUMBER),
+            new Column("stockQuantity", "stock_quantity", Kind.NUMBER),
+            new Column("imageUrl", "image_url", Kind.TEXT));
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(DataSource dataSource, ObjectMapper objectMapper) {
+        // MySQL Connector/J only streams row by row when the fetch size is Integer.MIN_VALUE
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportOrders(OutputStream out, Format format, LocalDate from, LocalDate to) throws IOException {
+        StringBuilder sql = new StringBuilder(select(ORDER_COLUMNS, "orders")).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND order_date <= ?");
+            args.add(to);
+        }
+        sql.append(" ORDER BY order_id");
+        export(out, format, "orders", ORDER_COLUMNS, sql.toString(), args.toArray());
+    }
+
+    @Override
+    public void exportUsers(OutputStream out, Format format) throws IOException {
+        export(out, format, "users", USER_COLUMNS, select(USER_COLUMNS, "users") + " ORDER BY user_id");
+    }
+
+    @Override
+    public void exportProducts(OutputStream out, Format format) throws IOException {
+        export(out, format, "products", PRODUCT_COLUMNS, select(PRODUCT_COLUMNS, "products") + " ORDER BY product_id");
+    }
+
+    private void export(OutputStream out, Format format, String name, List<Column> columns,
+                        String sql, Object... args) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                writeCsv(out, columns, sql, args);
+            } else {
+                writeJson(out, format, name, columns, sql, args);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(OutputStream out, List<Column> columns, String sql, Object[] args) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < columns.size(); i++) {
+            writer.write(i == 0 ? "" : ",");
+            writer.write(columns.get(i).field());
+        }
+        writer.write("\r\n");
+
+        streamingJdbcTemplate.query(sql, rs -> {
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    writer.write(i == 0 ? "" : ",");
+                    String value = text(rs, columns.get(i));
+                    if (value != null) {
+                        writer.write(csvEscape(value));
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args);
+        writer.flush();
+    }
+
+    private void writeJson(OutputStream out, Format format, String name, List<Column> columns,
+                           String sql, Object[] args) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // NDJSON lines are separated by a newline rather than a space
+        json.setRootValueSeparator(null);
+        if (format == Format.JSON) {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeArrayFieldStart(name);
+        }
+
+        streamingJdbcTemplate.query(sql, rs -> {
+            try {
+                json.writeStartObject();
+                for (Column column : columns) {
+                    json.writeFieldName(column.field());
+                    writeValue(json, rs, column);
+                }
+                json.writeEndObject();
+                if (format == Format.NDJSON) {
+                    json.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args);
+
+        if (format == Format.JSON) {
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.flush();
+    }
+
+    private static void writeValue(JsonGenerator json, ResultSet rs, Column column) throws SQLException, IOException {
+        if (column.kind() == Kind.NUMBER) {
+            BigDecimal number = rs.getBigDecimal(column.sql());
+            if (number == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(number);
+            }
+        } else {
+            String value = text(rs, column);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeString(value);
+            }
+        }
+    }
+
+    private static String text(ResultSet rs, Column column) throws SQLException {
+        return switch (column.kind()) {
+            case NUMBER -> {
+                BigDecimal number = rs.getBigDecimal(column.sql());
+                yield number == null ? null : number.toPlainString();
+            }
+            case DATE -> {
+                LocalDate date = rs.getObject(column.sql(), LocalDate.class);
+                yield date == null ? null : date.toString();
+            }
+            case TEXT -> rs.getString(column.sql());
+        };
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String select(List<Column> columns, String table) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).sql());
+        }
+        return sql.append(" FROM ").append(table).toString();
+    }
+
+    private enum Kind { NUMBER, TEXT, DATE }
+
+    private record Column(String field, String sql, Kind kind) {}
+}
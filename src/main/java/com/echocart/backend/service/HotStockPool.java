@@ -0,0 +1,232 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Striped in-memory stock for hot products (echocart.inventory.hot-products).
+ *
+ * Instead of every buyer running a conditional UPDATE on the same product row, stock is
+ * leased from the row in chunks and spread over several stripes. A take CASes one
+ * stripe, or gathers from several when none holds enough on its own; only the units
+ * still missing are leased from the row, with the same conditional decrement as cold
+ * products, in the caller's transaction. No lock is held while the database is called.
+ *
+ * The pool follows the caller's transaction: units taken from the stripes go back if it
+ * rolls back, and the surplus of a lease only reaches the stripes once it commits (on
+ * rollback the row keeps it). A product's available stock is its row plus
+ * {@link #pooled(Long)}; moving units between the two does not change it.
+ *
+ * Leased but unreserved units are returned to the row on shutdown. After a crash they
+ * are lost until the stock is corrected, at most stripes * lease-size per hot product.
+ */
+@Component
+public class HotStockPool {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockPool.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate returnTransaction;
+    private final Set<Long> hotProducts;
+    private final int stripeCount;
+    private final int leaseSize;
+
+    private final Map<Long, AtomicIntegerArray> pools = new ConcurrentHashMap<>();
+
+    public HotStockPool(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                        @Value("${echocart.inventory.hot-products:}") List<Long> hotProducts,
+                        @Value("${echocart.inventory.stripes:8}") int stripeCount,
+                        @Value("${echocart.inventory.lease-size:20}") int leaseSize) {
+        this.productRepository = productRepository;
+        this.returnTransaction = new TransactionTemplate(transactionManager);
+        this.hotProducts = new HashSet<>(hotProducts);
+        this.stripeCount = stripeCount;
+        this.leaseSize = leaseSize;
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProducts.contains(productId);
+    }
+
+    /**
+     * Takes {@code quantity} units, leasing from the product row if the stripes hold too
+     * few between them. Returns false, leaving the pool and the row as they were, if the
+     * two together cannot cover it.
+     */
+    public boolean take(Long productId, int quantity) {
+        AtomicIntegerArray stripes = stripesFor(productId);
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        if (tryTake(stripes, start, quantity)) {
+            afterRollback(() -> stripes.addAndGet(start, quantity));
+            return true;
+        }
+
+        int gathered = gather(stripes, start, quantity);
+        int missing = quantity - gathered;
+        int leased = missing == 0 ? 0 : lease(productId, missing);
+        if (leased < missing) {
+            stripes.addAndGet(start, gathered);
+            return false;
+        }
+
+        if (gathered > 0) {
+            afterRollback(() -> stripes.addAndGet(start, gathered));
+        }
+        if (leased > missing) {
+            afterCommit(() -> stripes.addAndGet(start, leased - missing));
+        }
+        return true;
+    }
+
+    /**
+     * Puts units back into the pool, e.g. from a released reservation. Callers inside a
+     * transaction should only do this once it has committed.
+     */
+    public void giveBack(Long productId, int quantity) {
+        stripesFor(productId).addAndGet(ThreadLocalRandom.current().nextInt(stripeCount), quantity);
+    }
+
+    /**
+     * Units leased out of the product row and not yet taken; 0 for cold products.
+     */
+    public int pooled(Long productId) {
+        AtomicIntegerArray stripes = pools.get(productId);
+        if (stripes == null) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            total += stripes.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Empties the product's pool, for when its row is about to be overwritten with a new
+     * absolute stock figure. The units come back if the caller's transaction rolls back.
+     */
+    public int drain(Long productId) {
+        AtomicIntegerArray stripes = pools.get(productId);
+        if (stripes == null) {
+            return 0;
+        }
+        int drained = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            drained += stripes.getAndSet(i, 0);
+        }
+        if (drained > 0) {
+            int units = drained;
+            afterRollback(() -> stripes.addAndGet(0, units));
+        }
+        return drained;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<Long, Integer> leased = new ConcurrentHashMap<>();
+        pools.keySet().forEach(productId -> leased.put(productId, pooled(productId)));
+        return Map.of("hotProducts", hotProducts, "stripes", stripeCount, "leaseSize", leaseSize, "leased", leased);
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        pools.forEach((productId, stripes) -> {
+            int leftover = 0;
+            for (int i = 0; i < stripes.length(); i++) {
+                leftover += stripes.getAndSet(i, 0);
+            }
+            if (leftover > 0) {
+                int units = leftover;
+                returnTransaction.executeWithoutResult(status -> productRepository.incrementStock(productId, units));
+                log.info("Returned {} leased units of product {}", units, productId);
+            }
+        });
+    }
+
+    private AtomicIntegerArray stripesFor(Long productId) {
+        return pools.computeIfAbsent(productId, id -> new AtomicIntegerArray(stripeCount));
+    }
+
+    private boolean tryTake(AtomicIntegerArray stripes, int start, int quantity) {
+        for (int i = 0; i < stripeCount; i++) {
+            int stripe = (start + i) % stripeCount;
+            int current = stripes.get(stripe);
+            while (current >= quantity) {
+                if (stripes.compareAndSet(stripe, current, current - quantity)) {
+                    return true;
+                }
+                current = stripes.get(stripe);
+            }
+        }
+        return false;
+    }
+
+    // Takes up to wanted units from whichever stripes have some; returns how many it got
+    private int gather(AtomicIntegerArray stripes, int start, int wanted) {
+        int gathered = 0;
+        for (int i = 0; i < stripeCount && gathered < wanted; i++) {
+            int stripe = (start + i) % stripeCount;
+            int current = stripes.get(stripe);
+            while (current > 0) {
+                int units = Math.min(current, wanted - gathered);
+                if (stripes.compareAndSet(stripe, current, current - units)) {
+                    gathered += units;
+                    break;
+                }
+                current = stripes.get(stripe);
+            }
+        }
+        return gathered;
+    }
+
+    // A full chunk if the row has it, else exactly what is missing, else nothing
+    private int lease(Long productId, int missing) {
+        int chunk = missing + leaseSize;
+        if (productRepository.decrementStock(productId, chunk) == 1) {
+            return chunk;
+        }
+        return productRepository.decrementStock(productId, missing) == 1 ? missing : 0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.CartLineItem;
+import com.echocart.backend.dto.CartSummary;
+import com.echocart.backend.entity.Cart;
+import com.echocart.backend.entity.InventoryReservation;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * CartService backed by {@link CartMemoryStore}; enabled with echocart.cart.store=memory.
+ * Reads and writes never wait on MySQL, changes reach the cart table write-behind.
+ */
+@Service
+@ConditionalOnProperty(name = "echocart.cart.store", havingValue = "memory")
+public class InMemoryCartServiceImpl implements CartService {
+
+    private final CartMemoryStore cartStore;
+    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final SearchService searchService;
+    private final InventoryService inventoryService;
+    private final boolean holdCartStock;
+
+    public InMemoryCartServiceImpl(CartMemoryStore cartStore, UserRepository userRepository,
+                                   ProductService productService, SearchService searchService,
+                                   InventoryService inventoryService,
+                                   @Value("${echocart.inventory.hold-cart-stock:false}") boolean holdCartStock) {
+        this.cartStore = cartStore;
+        this.userRepository = userRepository;
+        this.productService = productService;
+        this.searchService = searchService;
+        this.inventoryService = inventoryService;
+        this.holdCartStock = holdCartStock;
+    }
+
+    @Override
+    public Cart addToCart(Cart cart) {
+        validateCart(cart);
+
+        // Users that already have a cart are known to exist
+        if (!cartStore.hasUser(cart.getUserId()) && !userRepository.existsById(cart.getUserId())) {
+            throw new RuntimeException("User not found with ID: " + cart.getUserId());
+        }
+
+        // Verify product exists and check stock (served from the product cache when warm)
+        Optional<Product> productOpt = productService.findProduct(cart.getProductId());
+        if (productOpt.isEmpty()) {
+            throw new RuntimeException("Product not found with ID: " + cart.getProductId());
+        }
+
+        Product product = productOpt.get();
+        if (product.getStockQuantity() < cart.getQuantity()) {
+            throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
+        }
+
+        CartMemoryStore.Result result;
+        if (holdCartStock) {
+            // Each add holds its own units, so the line can never hold more than there was
+            inventoryService.reserveStock(cart.getProductId(), cart.getQuantity(), InventoryReservation.Type.CART,
+                    InventoryReservation.cartReference(cart.getUserId()));
+            result = cartStore.add(cart.getUserId(), cart.getProductId(), cart.getQuantity());
+        } else {
+            // The line's total after the add must fit the stock, not just this add's quantity
+            result = cartStore.add(cart.getUserId(), cart.getProductId(), cart.getQuantity(),
+                    product.getStockQuantity());
+        }
+        if (result == null) {
+            throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity()
+                    + ", already in cart: " + cartStore.getQuantity(cart.getUserId(), cart.getProductId()));
+        }
+        if (result.created()) {
+            // Popularity counts carts holding the product, so only new lines count
+            searchService.recordProductInterest(cart.getProductId());
+        }
+        return result.line();
+    }
+
+    @Override
+    public void removeFromCart(Long cartId) {
+        if (cartId == null) {
+            throw new IllegalArgumentException("Cart ID cannot be null");
+        }
+
+        Cart removed = cartStore.remove(cartId);
+        if (removed == null) {
+            throw new RuntimeException("Cart item not found with ID: " + cartId);
+        }
+        if (holdCartStock) {
+            inventoryService.releaseByReference(InventoryReservation.cartReference(removed.getUserId()),
+                    removed.getProductId());
+        }
+    }
+
+    @Override
+    public List<Cart> getCartDetails(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+
+        return cartStore.getLines(userId);
+    }
+
+    @Override
+    public CartSummary getCartSummary(Long userId) {
+        List<Cart> lines = getCartDetails(userId);
+        if (lines.isEmpty()) {
+            return new CartSummary(userId, List.of());
+        }
+
+        List<Long> productIds = new ArrayList<>(lines.size());
+        for (Cart line : lines) {
+            productIds.add(line.getProductId());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productService.getProductsByIds(productIds)) {
+            products.put(product.getProductId(), product);
+        }
+
+        // Same shape as the database join: lines whose product is gone are dropped
+        List<CartLineItem> items = new ArrayList<>(lines.size());
+        for (Cart line : lines) {
+            Product product = products.get(line.getProductId());
+            if (product != null) {
+                items.add(new CartLineItem(line.getCartId(), product.getProductId(), product.getName(),
+                        product.getPrice(), product.getImageUrl(), product.getStockQuantity(), line.getQuantity()));
+            }
+        }
+        return new CartSummary(userId, items);
+    }
+
+    @Override
+    public boolean removeCartLines(Long userId, List<CartLineItem> lines) {
+        Map<Long, Integer> expected = new HashMap<>();
+        for (CartLineItem line : lines) {
+            expected.put(line.getCartId(), line.getQuantity());
+        }
+        List<Cart> removed = cartStore.removeLines(userId, expected);
+        if (removed == null) {
+            return false;
+        }
+
+        // The store is not transactional; put the lines back if the caller rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        removed.forEach(line -> cartStore.add(userId, line.getProductId(), line.getQuantity()));
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private void validateCart(Cart cart) {
+        if (cart.getUserId() == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (cart.getProductId() == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (cart.getQuantity() == null || cart.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.echocart.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically returns the stock of reservations whose TTL has passed.
+ */
+@Component
+public class InventoryReservationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationSweeper.class);
+
+    private final InventoryService inventoryService;
+
+    public InventoryReservationSweeper(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @Scheduled(fixedDelayString = "${echocart.inventory.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            int released = inventoryService.expireReservations();
+            if (released > 0) {
+                log.info("Released {} expired inventory reservations", released);
+            }
+        } catch (RuntimeException e) {
+            log.error("Inventory reservation sweep failed", e);
+        }
+    }
+}
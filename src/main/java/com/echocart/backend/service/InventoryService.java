@@ -0,0 +1,22 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.InventoryReservation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface InventoryService {
+    void takeStock(Map<Long, Integer> quantities);
+    void returnStock(Map<Long, Integer> quantities);
+    InventoryReservation reserveStock(Long productId, Integer quantity, InventoryReservation.Type type, String reference);
+    boolean releaseReservation(Long reservationId);
+    boolean commitReservation(Long reservationId);
+    int releaseByReference(String reference);
+    int releaseByReference(String reference, Long productId);
+    Map<Long, Integer> commitByReference(String reference);
+    Optional<InventoryReservation> findReservation(Long reservationId);
+    List<InventoryReservation> getReservations(String reference);
+    int expireReservations();
+    Map<String, Object> getInventoryStats();
+}
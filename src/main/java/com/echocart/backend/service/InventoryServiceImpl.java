@@ -0,0 +1,250 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.InventoryReservation;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.repository.InventoryReservationRepository;
+import com.echocart.backend.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE product_id = ? AND stock_quantity >= ?";
+
+    private final ProductRepository productRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final ProductService productService;
+    private final HotStockPool hotStockPool;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration cartTtl;
+    private final Duration orderTtl;
+    private final int expiryBatchSize;
+
+    public InventoryServiceImpl(ProductRepository productRepository,
+                                InventoryReservationRepository reservationRepository,
+                                ProductService productService, HotStockPool hotStockPool,
+                                ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+                                @Value("${echocart.inventory.cart-ttl-minutes:30}") long cartTtlMinutes,
+                                @Value("${echocart.inventory.order-ttl-minutes:15}") long orderTtlMinutes,
+                                @Value("${echocart.inventory.expiry-batch-size:500}") int expiryBatchSize) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.productService = productService;
+        this.hotStockPool = hotStockPool;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cartTtl = Duration.ofMinutes(cartTtlMinutes);
+        this.orderTtl = Duration.ofMinutes(orderTtlMinutes);
+        this.expiryBatchSize = expiryBatchSize;
+    }
+
+    /**
+     * Takes stock for several products at once: hot products from their pool, the rest
+     * with one JDBC batch of conditional decrements. Throws, rolling the whole batch back,
+     * if any product is short.
+     */
+    @Override
+    public void takeStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> cold = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            int quantity = entry.getValue();
+            if (!hotStockPool.isHot(productId)) {
+                cold.add(entry);
+                continue;
+            }
+            // The pool hands the units back itself if we roll back
+            if (!hotStockPool.take(productId, quantity)) {
+                throw new RuntimeException("Insufficient stock for product ID: " + productId);
+            }
+            eventPublisher.publishEvent(new ProductStockChangedEvent(productId, -quantity));
+        }
+        if (cold.isEmpty()) {
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, cold, cold.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+        for (int i = 0; i < cold.size(); i++) {
+            if (updated[0][i] == 0) {
+                throw new RuntimeException("Insufficient stock for product ID: " + cold.get(i).getKey());
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : cold) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(entry.getKey(), -entry.getValue()));
+        }
+    }
+
+    @Override
+    public void returnStock(Map<Long, Integer> quantities) {
+        quantities.forEach(this::restock);
+    }
+
+    @Override
+    public InventoryReservation reserveStock(Long productId, Integer quantity, InventoryReservation.Type type,
+                                             String reference) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Reservation type cannot be null");
+        }
+        if (reference == null || reference.trim().isEmpty()) {
+            throw new IllegalArgumentException("Reference cannot be empty");
+        }
+        if (productService.findProduct(productId).isEmpty()) {
+            throw new RuntimeException("Product not found with ID: " + productId);
+        }
+
+        takeStock(Map.of(productId, quantity));
+
+        Duration ttl = type == InventoryReservation.Type.CART ? cartTtl : orderTtl;
+        return reservationRepository.save(new InventoryReservation(productId, quantity, type, reference,
+                LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    public boolean releaseReservation(Long reservationId) {
+        if (reservationId == null) {
+            throw new IllegalArgumentException("Reservation ID cannot be null");
+        }
+
+        return reservationRepository.findById(reservationId)
+                .map(this::release)
+                .orElse(false);
+    }
+
+    @Override
+    public boolean commitReservation(Long reservationId) {
+        if (reservationId == null) {
+            throw new IllegalArgumentException("Reservation ID cannot be null");
+        }
+
+        // The stock was already taken when reserving; committing just drops the hold
+        return reservationRepository.deleteReservation(reservationId) == 1;
+    }
+
+    @Override
+    public int releaseByReference(String reference) {
+        int released = 0;
+        for (InventoryReservation reservation : reservationRepository.findByReference(reference)) {
+            if (release(reservation)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public int releaseByReference(String reference, Long productId) {
+        int released = 0;
+        for (InventoryReservation reservation : reservationRepository.findByReference(reference)) {
+            if (reservation.getProductId().equals(productId) && release(reservation)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Turns every hold under the reference into a sale and returns the units they held
+     * per product, so the caller can take only the rest. Holds that expired or were
+     * released concurrently are not in the map.
+     */
+    @Override
+    public Map<Long, Integer> commitByReference(String reference) {
+        Map<Long, Integer> committed = new HashMap<>();
+        for (InventoryReservation reservation : reservationRepository.findByReference(reference)) {
+            if (reservationRepository.deleteReservation(reservation.getReservationId()) == 1) {
+                committed.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+        return committed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<InventoryReservation> findReservation(Long reservationId) {
+        return reservationRepository.findById(reservationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryReservation> getReservations(String reference) {
+        return reservationRepository.findByReference(reference);
+    }
+
+    @Override
+    public int expireReservations() {
+        List<Long> expired = reservationRepository.findExpiredIds(LocalDateTime.now(),
+                PageRequest.of(0, expiryBatchSize));
+        int released = 0;
+        for (Long reservationId : expired) {
+            if (releaseReservation(reservationId)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getInventoryStats() {
+        return Map.of(
+                "activeReservations", reservationRepository.count(),
+                "hotStock", hotStockPool.getStats()
+        );
+    }
+
+    private boolean release(InventoryReservation reservation) {
+        // Whoever deletes the row restores the stock, so concurrent releases cannot double count
+        if (reservationRepository.deleteReservation(reservation.getReservationId()) == 0) {
+            return false;
+        }
+
+        restock(reservation.getProductId(), reservation.getQuantity());
+        return true;
+    }
+
+    private void restock(Long productId, int quantity) {
+        if (hotStockPool.isHot(productId)) {
+            afterCommit(() -> hotStockPool.giveBack(productId, quantity));
+        } else {
+            productRepository.incrementStock(productId, quantity);
+        }
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId, quantity));
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,9 +1,23 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.BulkStatusResult;
+import com.echocart.backend.dto.OrderDetails;
+import com.echocart.backend.dto.OrderPage;
 import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.OrderItem;
+
+import java.util.List;
 
 public interface OrderService {
     Order createOrder(Order order);
+    OrderDetails checkout(Long userId);
+    List<OrderItem> getOrderItems(Long orderId);
     Order getOrderDetails(Long orderId);
     Order updateOrderStatus(Long orderId, Order.Status status);
+    Order updateOrderStatus(Long orderId, Order.Status status, Long expectedVersion);
+    BulkStatusResult updateOrderStatuses(List<Long> orderIds, Order.Status status);
+
+    // Order history, newest first
+    OrderPage getUserOrders(Long userId, String cursor, Integer limit);
+    OrderPage getOrders(Order.Status status, String cursor, Integer limit);
 }
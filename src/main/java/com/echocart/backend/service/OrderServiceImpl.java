@@ -1,23 +1,74 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.BulkStatusResult;
+import com.echocart.backend.dto.CartLineItem;
+import com.echocart.backend.dto.CartSummary;
+import com.echocart.backend.dto.OrderDetails;
+import com.echocart.backend.dto.OrderPage;
+import com.echocart.backend.entity.InventoryReservation;
 import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.OrderItem;
+import com.echocart.backend.entity.OutboxEvent;
+import com.echocart.backend.outbox.OutboxPublisher;
+import com.echocart.backend.repository.OrderItemRepository;
 import com.echocart.backend.repository.OrderRepository;
 import com.echocart.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final String SELECT_STATES_SQL =
+            "SELECT order_id, user_id, status, version FROM orders WHERE order_id IN (:orderIds)";
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET status = ?, version = version + 1 WHERE order_id = ? AND version = ?";
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
+    private final CartService cartService;
+    private final InventoryService inventoryService;
+    private final OutboxPublisher outboxPublisher;
+    private final DashboardCounters dashboardCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public OrderServiceImpl(OrderRepository orderRepository, UserRepository userRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                            UserRepository userRepository, CartService cartService,
+                            InventoryService inventoryService, OutboxPublisher outboxPublisher,
+                            DashboardCounters dashboardCounters, JdbcTemplate jdbcTemplate,
+                            @Value("${echocart.orders.page.default-size:20}") int defaultPageSize,
+                            @Value("${echocart.orders.page.max-size:100}") int maxPageSize) {
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.userRepository = userRepository;
+        this.cartService = cartService;
+        this.inventoryService = inventoryService;
+        this.outboxPublisher = outboxPublisher;
+        this.dashboardCounters = dashboardCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -32,7 +83,81 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderDate(LocalDate.now());
         order.setStatus(Order.Status.PENDING);
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        dashboardCounters.orderAdded(saved.getStatus());
+        outboxPublisher.publish(OutboxEvent.Type.ORDER_CREATED, saved.getOrderId(), createdPayload(saved, 0));
+        return saved;
+    }
+
+    /**
+     * Turns the user's cart into an order in one transaction: one read for the cart lines
+     * priced from the current products, then the order row, one batch of stock decrements,
+     * one batch of item inserts and one batch of cart deletes. Any failure rolls back all of it.
+     *
+     * Units the cart already holds (CART reservations under its reference) are sold from
+     * the holds; only the rest is taken from stock, and holds beyond the cart go back.
+     */
+    @Override
+    public OrderDetails checkout(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+
+        // Cart lines only exist for existing users, so this doubles as the user check
+        CartSummary cart = cartService.getCartSummary(userId);
+        if (cart.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+        Map<Long, Integer> held = inventoryService.commitByReference(InventoryReservation.cartReference(userId));
+        for (CartLineItem line : cart.getItems()) {
+            int stock = line.getStockQuantity() == null ? 0 : line.getStockQuantity();
+            if (stock + held.getOrDefault(line.getProductId(), 0) < line.getQuantity()) {
+                throw new RuntimeException("Insufficient stock for " + line.getName()
+                        + ". Available: " + line.getStockQuantity());
+            }
+        }
+
+        Order order = orderRepository.save(new Order(userId, cart.getGrandTotal()));
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        List<OrderItem> items = new ArrayList<>(cart.getItems().size());
+        for (CartLineItem line : cart.getItems()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            items.add(new OrderItem(order.getOrderId(), line.getProductId(), line.getName(),
+                    line.getPrice(), line.getQuantity()));
+        }
+        Map<Long, Integer> toTake = new HashMap<>();
+        Map<Long, Integer> toReturn = new HashMap<>(held);
+        quantities.forEach((productId, quantity) -> {
+            int covered = Math.min(quantity, held.getOrDefault(productId, 0));
+            if (quantity > covered) {
+                toTake.put(productId, quantity - covered);
+            }
+            toReturn.computeIfPresent(productId, (id, units) -> units > covered ? units - covered : null);
+        });
+        inventoryService.takeStock(toTake);
+        inventoryService.returnStock(toReturn);
+
+        // Pooled ids let Hibernate send these as one JDBC batch
+        orderItemRepository.saveAll(items);
+
+        if (!cartService.removeCartLines(userId, cart.getItems())) {
+            throw new RuntimeException("Cart changed during checkout, please try again");
+        }
+        outboxPublisher.publish(OutboxEvent.Type.ORDER_CREATED, order.getOrderId(), createdPayload(order, items.size()));
+        dashboardCounters.orderAdded(order.getStatus());
+
+        return new OrderDetails(order, items);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderItem> getOrderItems(Long orderId) {
+        if (orderId == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+
+        return orderItemRepository.findByOrderIdOrderByOrderItemId(orderId);
     }
 
     @Override
@@ -48,6 +173,16 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public Order updateOrderStatus(Long orderId, Order.Status status) {
+        return updateOrderStatus(orderId, status, null);
+    }
+
+    /**
+     * Moves one order along the status graph. The save is version-checked, so two admins
+     * changing the same order cannot both win; passing the version the caller last saw
+     * also rejects changes made since it was read.
+     */
+    @Override
+    public Order updateOrderStatus(Long orderId, Order.Status status, Long expectedVersion) {
         if (orderId == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
@@ -58,10 +193,161 @@ public class OrderServiceImpl implements OrderService {
         Order existing = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, orderId);
+        }
+        if (!existing.getStatus().canTransitionTo(status)) {
+            throw new IllegalStateException("Cannot change order status from "
+                    + existing.getStatus() + " to " + status);
+        }
+
+        if (status == Order.Status.CANCELLED) {
+            // Put back the stock taken at checkout; orders created without items have none
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (OrderItem item : orderItemRepository.findByOrderIdOrderByOrderItemId(orderId)) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            inventoryService.returnStock(quantities);
+        }
+
+        outboxPublisher.publish(OutboxEvent.Type.ORDER_STATUS_CHANGED, orderId,
+                statusPayload(existing, status));
+        dashboardCounters.ordersMoved(existing.getStatus(), status, 1);
         existing.setStatus(status);
         return orderRepository.save(existing);
     }
 
+    /**
+     * Applies one status to many orders: one read of their current (status, version), then
+     * one JDBC batch of version-conditional UPDATEs for the legal moves. A row whose version
+     * moved in between updates nothing and is reported as conflicted.
+     */
+    @Override
+    public BulkStatusResult updateOrderStatuses(List<Long> orderIds, Order.Status status) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("Order IDs cannot be empty");
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        Map<Long, OrderState> states = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_STATES_SQL, new MapSqlParameterSource("orderIds", ids), rs -> {
+            states.put(rs.getLong("order_id"), new OrderState(rs.getLong("user_id"),
+                    Order.Status.valueOf(rs.getString("status")), rs.getLong("version")));
+        });
+
+        BulkStatusResult result = new BulkStatusResult(status);
+        List<Long> candidates = new ArrayList<>();
+        for (Long orderId : ids) {
+            OrderState state = states.get(orderId);
+            if (state == null) {
+                result.getNotFound().add(orderId);
+            } else if (!state.status().canTransitionTo(status)) {
+                result.getIllegal().add(orderId);
+            } else {
+                candidates.add(orderId);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return result;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(TRANSITION_SQL, candidates, candidates.size(), (ps, orderId) -> {
+            ps.setString(1, status.name());
+            ps.setLong(2, orderId);
+            ps.setLong(3, states.get(orderId).version());
+        });
+        for (int i = 0; i < candidates.size(); i++) {
+            (updated[0][i] == 1 ? result.getSucceeded() : result.getConflicted()).add(candidates.get(i));
+        }
+
+        if (status == Order.Status.CANCELLED && !result.getSucceeded().isEmpty()) {
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (OrderItem item : orderItemRepository.findByOrderIdIn(result.getSucceeded())) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            inventoryService.returnStock(quantities);
+        }
+
+        Map<Long, Map<String, Object>> events = new HashMap<>();
+        Map<Order.Status, Integer> movedFrom = new HashMap<>();
+        for (Long orderId : result.getSucceeded()) {
+            OrderState state = states.get(orderId);
+            events.put(orderId, Map.of("orderId", orderId, "userId", state.userId(),
+                    "from", state.status(), "to", status));
+            movedFrom.merge(state.status(), 1, Integer::sum);
+        }
+        movedFrom.forEach((from, count) -> dashboardCounters.ordersMoved(from, status, count));
+        outboxPublisher.publishAll(OutboxEvent.Type.ORDER_STATUS_CHANGED, events);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getUserOrders(Long userId, String cursor, Integer limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+
+        OrderPage.Position after = OrderPage.decodeCursor(cursor);
+        int size = pageSize(limit);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Order> rows = after == null
+                ? orderRepository.findUserOrders(userId, pageable)
+                : orderRepository.findUserOrdersBefore(userId, after.orderDate(), after.orderId(), pageable);
+        return toPage(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(Order.Status status, String cursor, Integer limit) {
+        OrderPage.Position after = OrderPage.decodeCursor(cursor);
+        int size = pageSize(limit);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Order> rows;
+        if (status == null) {
+            rows = after == null
+                    ? orderRepository.findOrders(pageable)
+                    : orderRepository.findOrdersBefore(after.orderDate(), after.orderId(), pageable);
+        } else {
+            rows = after == null
+                    ? orderRepository.findOrdersByStatus(status, pageable)
+                    : orderRepository.findOrdersByStatusBefore(status, after.orderDate(), after.orderId(), pageable);
+        }
+        return toPage(rows, size);
+    }
+
+    private int pageSize(Integer limit) {
+        int size = limit == null ? defaultPageSize : limit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // One extra row was fetched to tell whether another page exists without a COUNT query
+    private static OrderPage toPage(List<Order> rows, int size) {
+        if (rows.size() <= size) {
+            return new OrderPage(rows, null);
+        }
+        List<Order> page = rows.subList(0, size);
+        return new OrderPage(page, OrderPage.encodeCursor(page.get(size - 1)));
+    }
+
+    private static Map<String, Object> createdPayload(Order order, int itemCount) {
+        return Map.of("orderId", order.getOrderId(), "userId", order.getUserId(),
+                "totalAmount", order.getTotalAmount(), "itemCount", itemCount);
+    }
+
+    private static Map<String, Object> statusPayload(Order order, Order.Status to) {
+        return Map.of("orderId", order.getOrderId(), "userId", order.getUserId(),
+                "from", order.getStatus(), "to", to);
+    }
+
+    private record OrderState(long userId, Order.Status status, long version) {}
+
     private void validateOrder(Order order) {
         if (order.getUserId() == null) {
             throw new IllegalArgumentException("User ID cannot be null");
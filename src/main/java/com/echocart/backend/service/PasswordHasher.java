@@ -0,0 +1,166 @@
+package com.echocart.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Runs bcrypt on its own small pool so a login spike burns those threads, not Tomcat's.
+ * The queue is bounded and callers wait at most max-wait-ms; beyond that the request is
+ * refused with an IllegalStateException instead of queueing up more CPU work than the
+ * pool can ever finish.
+ *
+ * bcrypt cannot be interrupted, so a caller that gives up does not stop a hash that has
+ * started; that hash keeps its slot until it finishes, and a hash that had not started
+ * is skipped. At most threads + queue-capacity hashes are admitted at a time, counting
+ * the abandoned ones, so timed-out callers cannot pile more work onto the pool.
+ *
+ * Stored values that are not bcrypt hashes are treated as legacy plaintext and compared
+ * in constant time, after a dummy bcrypt check so they take as long as a real one;
+ * {@link Verification#needsRehash()} tells the caller to replace them (or hashes of
+ * another cost) after a successful match.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    // Admitted hashes, queued or running, including those whose caller stopped waiting
+    private final Semaphore admitted;
+    private final int admissionLimit;
+    private final long maxWaitMs;
+    // Checked when there is no real hash (unknown user, legacy plaintext) so those take as long
+    private final String dummyHash;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder busyTimeNanos = new LongAdder();
+
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          @Value("${echocart.passwords.threads:0}") int threads,
+                          @Value("${echocart.passwords.queue-capacity:64}") int queueCapacity,
+                          @Value("${echocart.passwords.max-wait-ms:2000}") long maxWaitMs) {
+        this.encoder = encoder;
+        this.maxWaitMs = maxWaitMs;
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.admissionLimit = size + queueCapacity;
+        this.admitted = new Semaphore(admissionLimit);
+        this.dummyHash = encoder.encode("not-a-real-password");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public String hash(String rawPassword) {
+        String hashed = run(() -> encoder.encode(rawPassword));
+        hashes.increment();
+        return hashed;
+    }
+
+    public Verification verify(String rawPassword, String stored) {
+        if (stored == null) {
+            run(() -> encoder.matches(rawPassword, dummyHash));
+            return new Verification(false, false);
+        }
+        if (!BCRYPT.matcher(stored).matches()) {
+            run(() -> encoder.matches(rawPassword, dummyHash));
+            boolean matches = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+            return new Verification(matches, matches);
+        }
+        boolean matches = run(() -> encoder.matches(rawPassword, stored));
+        verifications.increment();
+        return new Verification(matches, matches && encoder.upgradeEncoding(stored));
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "threads", pool.getMaximumPoolSize(),
+                "active", pool.getActiveCount(),
+                "queued", pool.getQueue().size(),
+                "queueCapacity", pool.getQueue().size() + pool.getQueue().remainingCapacity(),
+                "admitted", admissionLimit - admitted.availablePermits(),
+                "hashes", hashes.sum(),
+                "verifications", verifications.sum(),
+                "rejected", rejected.sum(),
+                "busyMs", TimeUnit.NANOSECONDS.toMillis(busyTimeNanos.sum())
+        );
+    }
+
+    private <T> T run(Callable<T> work) {
+        if (!admitted.tryAcquire()) {
+            rejected.increment();
+            throw new IllegalStateException("Too many logins in progress, please try again shortly");
+        }
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Future<T> future;
+        try {
+            // Never cancelled, so the permit is always released by the task itself
+            future = pool.submit(() -> {
+                try {
+                    if (abandoned.get()) {
+                        return null;
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return work.call();
+                    } finally {
+                        busyTimeNanos.add(System.nanoTime() - start);
+                    }
+                } finally {
+                    admitted.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admitted.release();
+            rejected.increment();
+            throw new IllegalStateException("Too many logins in progress, please try again shortly");
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandoned.set(true);
+            rejected.increment();
+            throw new IllegalStateException("Too many logins in progress, please try again shortly");
+        } catch (InterruptedException e) {
+            abandoned.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the password");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public record Verification(boolean matches, boolean needsRehash) {}
+}
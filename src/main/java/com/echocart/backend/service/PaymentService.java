@@ -2,7 +2,10 @@ package com.echocart.backend.service;
 
 import com.echocart.backend.entity.Payment;
 
+import java.util.Map;
+
 public interface PaymentService {
     Payment processPayment(Payment payment);
     Payment getPaymentStatus(Long paymentId);
+    Map<String, Object> getProcessingStats();
 }
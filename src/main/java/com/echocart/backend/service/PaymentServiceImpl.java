@@ -1,12 +1,16 @@
 package com.echocart.backend.service;
 
 import com.echocart.backend.entity.Payment;
+import com.echocart.backend.payment.PaymentProcessor;
 import com.echocart.backend.repository.PaymentRepository;
 import com.echocart.backend.repository.OrderRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -14,12 +18,19 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final PaymentProcessor paymentProcessor;
 
-    public PaymentServiceImpl(PaymentRepository paymentRepository, OrderRepository orderRepository) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, OrderRepository orderRepository,
+                              PaymentProcessor paymentProcessor) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
+        this.paymentProcessor = paymentProcessor;
     }
 
+    /**
+     * Accepts the payment as PENDING and hands it to the PaymentProcessor once the row is
+     * committed; poll {@link #getPaymentStatus} for the outcome.
+     */
     @Override
     public Payment processPayment(Payment payment) {
         validatePayment(payment);
@@ -29,11 +40,39 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("Order not found with ID: " + payment.getOrderId());
         }
 
-        // Simulate payment gateway processing
+        // Throws when the gateway is down or the processor is full, before anything is written
+        paymentProcessor.admit();
+
+        payment.setPaymentId(null);
         payment.setPaymentDate(LocalDate.now());
-        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setPaymentStatus(Payment.PaymentStatus.PENDING);
+        payment.setGatewayReference(null);
+        payment.setFailureReason(null);
+
+        Payment saved;
+        try {
+            saved = paymentRepository.save(payment);
+        } catch (RuntimeException e) {
+            paymentProcessor.release();
+            throw e;
+        }
 
-        return paymentRepository.save(payment);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    paymentProcessor.submit(saved.getPaymentId(), saved.getOrderId(), saved.getAmount());
+                } else {
+                    paymentProcessor.release();
+                }
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public Map<String, Object> getProcessingStats() {
+        return paymentProcessor.getStats();
     }
 
     @Override
@@ -0,0 +1,248 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded, approximately-LRU cache of products keyed by productId, with a per-entry TTL.
+ * Only ProductServiceImpl writes to it; everything else reads through ProductService.
+ * Stock moved by inventory reservations bypasses the service, so those entries are evicted.
+ *
+ * Reads are a ConcurrentHashMap lookup plus a timestamp write on the entry, with no shared
+ * lock. When the map grows past max-size, one thread drops the least recently read tenth.
+ *
+ * Every write and eviction takes a new generation. A reader notes the generation before
+ * it queries the database and only caches its row if nothing newer was written or
+ * evicted for that id meanwhile, so a row loaded just before an update commits cannot
+ * overwrite the updated one. Evictions leave a tombstone behind for that check.
+ * Callers get their own copy of the product, never the cached instance.
+ */
+@Component
+public class ProductCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleLoadsDropped = new LongAdder();
+
+    public ProductCache(@Value("${echocart.products.cache.max-size:10000}") int maxSize,
+                        @Value("${echocart.products.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Optional<Product> get(Long productId, Function<Long, Optional<Product>> loader) {
+        Product cached = lookup(productId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        // Noted before the query: anything written for this id after it makes our row stale
+        long loadedAt = generation.get();
+        Optional<Product> loaded = loader.apply(productId);
+        loaded.ifPresent(product -> putLoaded(product, loadedAt));
+        return loaded;
+    }
+
+    /**
+     * Resolves many ids at once; misses are handed to the loader in a single call.
+     * The returned map only contains ids that exist.
+     */
+    public Map<Long, Product> getAll(Collection<Long> productIds, Function<List<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            Product cached = lookup(productId);
+            if (cached != null) {
+                hits.increment();
+                found.put(productId, cached);
+            } else {
+                misses.increment();
+                missing.add(productId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            for (Product product : loader.apply(missing)) {
+                putLoaded(product, loadedAt);
+                found.put(product.getProductId(), product);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores a product that was just written; always wins over rows loaded earlier.
+     */
+    public void put(Product product) {
+        if (product == null || product.getProductId() == null || maxSize <= 0) {
+            return;
+        }
+        entries.put(product.getProductId(), new Entry(copyOf(product), generation.incrementAndGet(), expiry()));
+        trimIfNeeded();
+    }
+
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        Entry previous = entries.put(productId, Entry.tombstone(generation.incrementAndGet(), expiry()));
+        if (previous != null && previous.product != null) {
+            evictions.increment();
+        }
+        trimIfNeeded();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    public void clear() {
+        long cleared = entries.values().stream().filter(entry -> entry.product != null).count();
+        // Tombstones for everything, so loads that started before the clear are not cached
+        long tombstoneGeneration = generation.incrementAndGet();
+        entries.replaceAll((id, entry) -> Entry.tombstone(tombstoneGeneration, expiry()));
+        evictions.add(cleared);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return Map.of(
+                "size", entries.size(),
+                "maxSize", maxSize,
+                "ttlSeconds", ttlMillis / 1000,
+                "hits", hitCount,
+                "misses", missCount,
+                "evictions", evictions.sum(),
+                "staleLoadsDropped", staleLoadsDropped.sum(),
+                "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    private Product lookup(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        Entry entry = entries.get(productId);
+        if (entry == null || entry.product == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            if (entries.remove(productId, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        entry.lastRead = System.nanoTime();
+        return copyOf(entry.product);
+    }
+
+    private void putLoaded(Product product, long loadedAt) {
+        if (product.getProductId() == null || maxSize <= 0) {
+            return;
+        }
+        Entry fresh = new Entry(copyOf(product), loadedAt, expiry());
+        Entry stored = entries.compute(product.getProductId(), (id, existing) -> {
+            if (existing == null || existing.expiresAt < System.currentTimeMillis()) {
+                return fresh;
+            }
+            // A write or eviction after our query started: keep it, our row may predate it
+            return existing.generation > loadedAt ? existing : fresh;
+        });
+        if (stored != fresh) {
+            staleLoadsDropped.increment();
+        }
+        trimIfNeeded();
+    }
+
+    private void trimIfNeeded() {
+        if (entries.size() <= maxSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            // Trim a tenth below the bound so this runs once per many inserts, not on each one
+            int toRemove = excess + maxSize / 10;
+            long now = System.currentTimeMillis();
+            // Ranks are read once up front; lastRead keeps moving while we sort
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((id, entry) -> candidates.add(new Candidate(id, entry, entry.evictionRank(now))));
+            candidates.sort(Comparator.comparingLong(Candidate::rank));
+            for (int i = 0; i < toRemove && i < candidates.size(); i++) {
+                Candidate candidate = candidates.get(i);
+                if (entries.remove(candidate.id(), candidate.entry()) && candidate.entry().product != null) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getDescription(), product.getPrice(),
+                product.getCategoryId(), product.getStockQuantity(), product.getImageUrl());
+        copy.setProductId(product.getProductId());
+        return copy;
+    }
+
+    private record Candidate(Long id, Entry entry, long rank) {}
+
+    private static final class Entry {
+        // null for a tombstone
+        final Product product;
+        final long generation;
+        final long expiresAt;
+        volatile long lastRead = System.nanoTime();
+
+        Entry(Product product, long generation, long expiresAt) {
+            this.product = product;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+
+        static Entry tombstone(long generation, long expiresAt) {
+            return new Entry(null, generation, expiresAt);
+        }
+
+        // Expired entries first, then the least recently read
+        long evictionRank(long now) {
+            return expiresAt < now ? Long.MIN_VALUE : lastRead;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.ImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+public interface ProductImportService {
+    ImportJob startImport(InputStream input, String format) throws IOException;
+    Optional<ImportJob> getJob(String jobId);
+}
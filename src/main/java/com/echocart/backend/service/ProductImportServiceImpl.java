@@ -0,0 +1,292 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.ImportJob;
+import com.echocart.backend.entity.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from CSV (with a header row) or NDJSON (one product per line).
+ *
+ * The upload is spooled to a temp file so the request returns a job id straight away;
+ * a single background thread then reads it record by record, validates each row against
+ * the Product constraints and saves valid rows in chunks of {@code chunk-size}, one
+ * transaction per chunk. A chunk that fails to save is retried row by row so only the
+ * offending rows end up in the error report.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    private final ProductService productService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int retainedJobs;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService importer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductImportServiceImpl(ProductService productService, Validator validator, ObjectMapper objectMapper,
+                                    @Value("${echocart.import.chunk-size:500}") int chunkSize,
+                                    @Value("${echocart.import.max-errors:1000}") int maxErrors,
+                                    @Value("${echocart.import.retained-jobs:20}") int retainedJobs) {
+        this.productService = productService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importer.shutdownNow();
+    }
+
+    @Override
+    public ImportJob startImport(InputStream input, String format) throws IOException {
+        String normalized = format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals("csv") && !normalized.equals("ndjson")) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+
+        Path spool = Files.createTempFile("product-import-", "." + normalized);
+        try {
+            Files.copy(input, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), normalized, maxErrors);
+        pruneFinishedJobs();
+        jobs.put(job.getJobId(), job);
+        importer.execute(() -> run(job, spool));
+        return job;
+    }
+
+    @Override
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(ImportJob job, Path spool) {
+        job.start();
+        long start = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            if (job.getFormat().equals("csv")) {
+                importCsv(job, reader);
+            } else {
+                importNdjson(job, reader);
+            }
+            job.finish(ImportJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Product import {} failed", job.getJobId(), e);
+            job.finish(ImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+        log.info("Product import {} finished: {} rows read, {} imported, {} failed in {} ms", job.getJobId(),
+                job.getRowsRead(), job.getImported(), job.getFailed(), System.currentTimeMillis() - start);
+    }
+
+    private void importCsv(ImportJob job, BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+
+        Chunk chunk = new Chunk(job);
+        long row = 0;
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            row++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            job.rowRead();
+            try {
+                chunk.add(row, validate(fromCsv(record, columns)));
+            } catch (IllegalArgumentException e) {
+                job.rowFailed(row, e.getMessage());
+            }
+        }
+        chunk.flush();
+    }
+
+    private void importNdjson(ImportJob job, BufferedReader reader) throws IOException {
+        Chunk chunk = new Chunk(job);
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            job.rowRead();
+            try {
+                Product product = objectMapper.readValue(line, Product.class);
+                product.setProductId(null);
+                chunk.add(row, validate(product));
+            } catch (JsonProcessingException e) {
+                job.rowFailed(row, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                job.rowFailed(row, e.getMessage());
+            }
+        }
+        chunk.flush();
+    }
+
+    private Product fromCsv(List<String> record, Map<String, Integer> columns) {
+        Product product = new Product();
+        product.setName(column(record, columns, "name"));
+        product.setDescription(column(record, columns, "description"));
+        product.setImageUrl(column(record, columns, "imageurl"));
+        try {
+            String price = column(record, columns, "price");
+            product.setPrice(price == null ? null : new BigDecimal(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price");
+        }
+        try {
+            String categoryId = column(record, columns, "categoryid");
+            product.setCategoryId(categoryId == null ? null : Long.valueOf(categoryId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid category ID");
+        }
+        try {
+            String stock = column(record, columns, "stockquantity");
+            product.setStockQuantity(stock == null ? null : Integer.valueOf(stock));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid stock quantity");
+        }
+        return product;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // "stock_quantity", "Stock Quantity" and "stockQuantity" all name the same column
+    private static String normalizeColumn(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private Product validate(Product product) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return product;
+    }
+
+    private void pruneFinishedJobs() {
+        List<ImportJob> finished = jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted((a, b) -> a.getFinishedAt().compareTo(b.getFinishedAt()))
+                .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - retainedJobs + 1; i++) {
+            jobs.remove(finished.get(i).getJobId());
+        }
+    }
+
+    /**
+     * Valid rows waiting to be saved, with their row numbers for error reporting.
+     */
+    private class Chunk {
+        private final ImportJob job;
+        private final List<Product> products = new ArrayList<>(chunkSize);
+        private final List<Long> rows = new ArrayList<>(chunkSize);
+
+        Chunk(ImportJob job) {
+            this.job = job;
+        }
+
+        void add(long row, Product product) {
+            products.add(product);
+            rows.add(row);
+            if (products.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (products.isEmpty()) {
+                return;
+            }
+            try {
+                productService.addProducts(products);
+                job.rowsImported(products.size());
+            } catch (RuntimeException e) {
+                // The chunk rolled back as a whole; save row by row to find the bad ones
+                Iterator<Long> rowNumbers = rows.iterator();
+                for (Product product : products) {
+                    long row = rowNumbers.next();
+                    product.setProductId(null);
+                    try {
+                        productService.addProducts(List.of(product));
+                        job.rowsImported(1);
+                    } catch (RuntimeException rowError) {
+                        job.rowFailed(row, NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    }
+                }
+            }
+            products.clear();
+            rows.clear();
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.ProductPage;
 import com.echocart.backend.entity.Product;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Product addProduct(Product product);
+    List<Product> addProducts(List<Product> products);
     Product updateProduct(Long productId, Product product);
     Product getProductDetails(Long productId);
+    Optional<Product> findProduct(Long productId);
+    List<Product> getProductsByIds(List<Long> productIds);
     void deleteProduct(Long productId);
     List<Product> getAllProducts();
+
+    // Catalog listing
+    ProductPage getProductsPage(String cursor, Integer limit);
+    void streamAllProducts(Consumer<Product> consumer);
+
+    // Cache metrics
+    Map<String, Object> getCacheStats();
 }
@@ -1,11 +1,27 @@
 package com.echocart.backend.service;
 
+import com.echocart.backend.dto.ProductPage;
 import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductChangedEvent;
 import com.echocart.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -13,12 +29,53 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private HotStockPool hotStockPool;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${echocart.products.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${echocart.products.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${echocart.products.batch.max-ids:200}")
+    private int maxBatchIds;
+
     @Override
+    @Transactional
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        afterCommit(() -> productCache.put(saved));
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
+    /**
+     * Saves a chunk of new products in one transaction; with pooled ids Hibernate sends
+     * the inserts as JDBC batches. Products are not pushed into the cache, since a bulk
+     * load would only evict the entries that are actually being read.
+     */
     @Override
+    @Transactional
+    public List<Product> addProducts(List<Product> products) {
+        List<Product> saved = productRepository.saveAll(products);
+        for (Product product : saved) {
+            eventPublisher.publishEvent(ProductChangedEvent.created(product));
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
     public Product updateProduct(Long productId, Product product) {
         Product existing = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -26,23 +83,140 @@ public class ProductServiceImpl implements ProductService {
         existing.setDescription(product.getDescription());
         existing.setPrice(product.getPrice());
         existing.setCategoryId(product.getCategoryId());
+        if (hotStockPool.isHot(productId)) {
+            // The admin's figure is the whole stock, so units leased into the pool would be
+            // counted twice; the row lock keeps new leases out until this commits
+            productRepository.lockStockQuantity(productId);
+            hotStockPool.drain(productId);
+        }
         existing.setStockQuantity(product.getStockQuantity());
-        return productRepository.save(existing);
+        Product saved = productRepository.save(existing);
+
+        // Evict now so no reader sees the old row once we commit, then repopulate on commit
+        productCache.evict(productId);
+        afterCommit(() -> productCache.put(saved));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved));
+        return saved;
     }
 
     @Override
     public Product getProductDetails(Long productId) {
-        return productRepository.findById(productId)
+        return findProduct(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
     @Override
+    public Optional<Product> findProduct(Long productId) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        return productCache.get(productId, productRepository::findById).map(this::withPooledStock);
+    }
+
+    @Override
+    public List<Product> getProductsByIds(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new IllegalArgumentException("Product IDs cannot be empty");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " product IDs per request");
+        }
+
+        // Cache sweep first, then a single IN query for whatever is left
+        Map<Long, Product> found = productCache.getAll(ids, productRepository::findAllById);
+
+        // Keep the caller's order; unknown ids are simply left out
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(withPooledStock(product));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional
     public void deleteProduct(Long productId) {
-        productRepository.deleteById(productId);
+        // deleteById is silent about missing rows; only a real delete may announce one
+        if (productRepository.deleteProductById(productId) == 0) {
+            throw new RuntimeException("Product not found with ID: " + productId);
+        }
+        productCache.evict(productId);
+        // A concurrent reader may have reloaded the row before we committed
+        afterCommit(() -> productCache.evict(productId));
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
     }
 
     @Override
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productRepository.findAll().stream().map(this::withPooledStock).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPage getProductsPage(String cursor, Integer limit) {
+        int size = limit == null ? defaultPageSize : limit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        size = Math.min(size, maxPageSize);
+
+        Long afterId = ProductPage.decodeCursor(cursor);
+
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<Product> rows = productRepository.findPageAfter(afterId, PageRequest.of(0, size + 1))
+                .stream().map(this::withPooledStock).toList();
+        if (rows.size() <= size) {
+            return new ProductPage(rows, null);
+        }
+
+        List<Product> page = rows.subList(0, size);
+        return new ProductPage(page, ProductPage.encodeCursor(page.get(size - 1).getProductId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                consumer.accept(withPooledStock(product));
+                // Keep the persistence context from growing with the catalog
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        return productCache.getStats();
+    }
+
+    // Hot products have part of their stock leased into the pool; a copy reports both,
+    // so the entity itself is never changed
+    private Product withPooledStock(Product product) {
+        int pooled = hotStockPool.pooled(product.getProductId());
+        if (pooled == 0) {
+            return product;
+        }
+        Product copy = ProductCache.copyOf(product);
+        copy.setStockQuantity(product.getStockQuantity() + pooled);
+        return copy;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,17 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.ProductBrowseResult;
+import com.echocart.backend.dto.ProductSearchResult;
+import com.echocart.backend.dto.ProductSummary;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SearchService {
+    ProductSearchResult searchProducts(String query, Long categoryId, BigDecimal minPrice,
+                                       BigDecimal maxPrice, Integer limit);
+    List<ProductSummary> suggestProducts(String prefix, Integer limit);
+    void recordProductInterest(Long productId);
+    ProductBrowseResult browseProducts(Long categoryId, String priceRange, Boolean inStock,
+                                       String cursor, Integer limit);
+}
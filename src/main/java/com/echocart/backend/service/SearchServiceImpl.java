@@ -0,0 +1,103 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.ProductBrowseResult;
+import com.echocart.backend.dto.ProductPage;
+import com.echocart.backend.dto.ProductSearchResult;
+import com.echocart.backend.dto.ProductSummary;
+import com.echocart.backend.search.ProductFacetIndex;
+import com.echocart.backend.search.ProductSearchIndex;
+import com.echocart.backend.search.ProductSuggester;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggester productSuggester;
+    private final ProductFacetIndex productFacetIndex;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxSuggestions;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public SearchServiceImpl(ProductSearchIndex productSearchIndex, ProductSuggester productSuggester,
+                             ProductFacetIndex productFacetIndex,
+                             @Value("${echocart.search.default-limit:20}") int defaultLimit,
+                             @Value("${echocart.search.max-limit:100}") int maxLimit,
+                             @Value("${echocart.suggest.max-results:10}") int maxSuggestions,
+                             @Value("${echocart.products.page.default-size:50}") int defaultPageSize,
+                             @Value("${echocart.products.page.max-size:500}") int maxPageSize) {
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
+        this.productFacetIndex = productFacetIndex;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxSuggestions = maxSuggestions;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public ProductSearchResult searchProducts(String query, Long categoryId, BigDecimal minPrice,
+                                              BigDecimal maxPrice, Integer limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+        int size = limit == null ? defaultLimit : limit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+
+        return productSearchIndex.search(query, categoryId, minPrice, maxPrice, Math.min(size, maxLimit));
+    }
+
+    @Override
+    public List<ProductSummary> suggestProducts(String prefix, Integer limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return List.of();
+        }
+        int size = limit == null ? maxSuggestions : limit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+
+        return productSuggester.suggest(prefix, Math.min(size, maxSuggestions));
+    }
+
+    @Override
+    public void recordProductInterest(Long productId) {
+        if (productId != null) {
+            productSuggester.recordPopularity(productId, 1);
+        }
+    }
+
+    @Override
+    public ProductBrowseResult browseProducts(Long categoryId, String priceRange, Boolean inStock,
+                                              String cursor, Integer limit) {
+        int size = limit == null ? defaultPageSize : limit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        size = Math.min(size, maxPageSize);
+
+        int priceBucket = priceRange == null || priceRange.isBlank() ? -1 : productFacetIndex.bucketIndex(priceRange);
+        Long afterId = ProductPage.decodeCursor(cursor);
+
+        ProductFacetIndex.Result result = productFacetIndex.browse(categoryId, priceBucket, inStock, afterId, size);
+        List<ProductSummary> products = result.getProducts();
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = ProductPage.encodeCursor(products.get(size - 1).getProductId());
+        }
+        return new ProductBrowseResult(products, nextCursor, result.getTotalMatches(), result.getFacets());
+    }
+}
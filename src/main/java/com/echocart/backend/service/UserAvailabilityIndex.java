@@ -0,0 +1,172 @@
+package com.echocart.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Bloom filter over taken usernames and emails, so registration and the availability
+ * check only query the users table when a value might already exist. A "no" from
+ * {@link #mightContainUsername} / {@link #mightContainEmail} is definite; a "yes" may be
+ * a false positive (about false-positive-rate while within expected-users) and has to be
+ * confirmed against the database.
+ *
+ * Values are folded the way MySQL's default collation compares them (case and accents
+ * ignored) so the filter never says "free" for a value the unique key would reject.
+ * Built at startup and every rebuild-interval-ms, which also drops deleted users and
+ * resizes it for growth; writes are added before the insert and again after commit, so
+ * a rebuild running meanwhile does not miss them. Registrations made on other instances
+ * only show up after the next rebuild; the unique constraints stay the final word.
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    // Both written while a rebuild runs; current answers queries until the new one is complete
+    private volatile BloomFilter current;
+    private volatile BloomFilter next;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private volatile long lastBuildMs;
+
+    public UserAvailabilityIndex(JdbcTemplate jdbcTemplate,
+                                 @Value("${echocart.users.availability.expected-users:1000000}") long expectedUsers,
+                                 @Value("${echocart.users.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${echocart.users.availability.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${echocart.users.availability.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            // Room to double before the next rebuild; two keys (username, email) per user
+            long capacity = 2 * Math.max(expectedUsers, 2 * (users == null ? 0 : users));
+            BloomFilter building = new BloomFilter(capacity, falsePositiveRate);
+            next = building;
+            jdbcTemplate.query("SELECT username, email FROM users", rs -> {
+                building.put(usernameKey(rs.getString("username")));
+                building.put(emailKey(rs.getString("email")));
+            });
+            current = building;
+            lastBuildMs = System.currentTimeMillis() - start;
+            log.info("User availability index built: {} users, {} KB in {} ms",
+                    users, building.sizeInBytes() / 1024, lastBuildMs);
+        } catch (RuntimeException e) {
+            // Keep answering from the old filter (or the database, if there is none yet)
+            log.error("User availability index rebuild failed", e);
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * Records a username and email that are about to be written. Safe to call before the
+     * insert: a rolled back write only leaves a false positive behind.
+     */
+    public void add(String username, String email) {
+        put(username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(username, email);
+                }
+            });
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContain(usernameKey(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emailKey(email));
+    }
+
+    public Map<String, Object> getStats() {
+        BloomFilter filter = current;
+        long total = lookups.sum();
+        return Map.of(
+                "ready", filter != null,
+                "sizeBytes", filter == null ? 0 : filter.sizeInBytes(),
+                "hashFunctions", filter == null ? 0 : filter.hashFunctions(),
+                "expectedFalsePositiveRate", filter == null ? 1.0 : filter.expectedFalsePositiveRate(),
+                "lookups", total,
+                "skippedDatabase", definiteMisses.sum(),
+                "skippedRatio", total == 0 ? 0.0 : (double) definiteMisses.sum() / total,
+                "lastBuildMs", lastBuildMs
+        );
+    }
+
+    private void put(String username, String email) {
+        BloomFilter filter = current;
+        BloomFilter building = next;
+        for (BloomFilter target : new BloomFilter[]{filter, building}) {
+            if (target != null) {
+                target.put(usernameKey(username));
+                target.put(emailKey(email));
+            }
+        }
+    }
+
+    private boolean mightContain(String key) {
+        BloomFilter filter = current;
+        lookups.increment();
+        // Not built yet: every answer has to come from the database
+        if (filter == null || filter.mightContain(key)) {
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + fold(username);
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + fold(email);
+    }
+
+    // Case- and accent-insensitive, trailing spaces ignored, like utf8mb4 general/0900_ai_ci
+    private static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = value.stripTrailing();
+        if (stripped.chars().anyMatch(c -> c > 0x7f)) {
+            stripped = MARKS.matcher(Normalizer.normalize(stripped, Normalizer.Form.NFKD)).replaceAll("");
+        }
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
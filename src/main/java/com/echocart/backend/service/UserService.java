@@ -11,10 +11,11 @@ public interface UserService {
     User updateUser(User user);
     User loginUser(String identifier, String password);
     User getUserProfile(Long userId);
+    boolean isUsernameAvailable(String username);
+    boolean isEmailAvailable(String email);
 
     // Admin Only Methods
     List<User> getAllUsers();
-    List<Order> getAllOrders();
     Map<String, Object> getAdminDashboard();
     User updateUserRole(Long userId, User.Role newRole);
     void deleteUser(Long userId);
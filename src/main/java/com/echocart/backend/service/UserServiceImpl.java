@@ -1,19 +1,17 @@
 package com.echocart.backend.service;
 
 import com.echocart.backend.entity.User;
-import com.echocart.backend.entity.Order;
-import com.echocart.backend.entity.Product;
 import com.echocart.backend.repository.UserRepository;
-import com.echocart.backend.repository.OrderRepository;
-import com.echocart.backend.repository.ProductRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Optional;
 
 @Service
@@ -24,18 +22,24 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private PasswordHasher passwordHasher;
 
     @Autowired
-    private ProductRepository productRepository;
+    private UserAvailabilityIndex availabilityIndex;
 
-//    @Autowired
-//    private BCryptPasswordEncoder passwordEncoder;
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
 
     // ==================== CUSTOMER & ADMIN COMMON METHODS ====================
 
+    // No surrounding transaction: the bcrypt hash must not hold a DB connection; the insert
+    // commits on its own
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(User user) {
         if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be empty");
@@ -47,21 +51,27 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Password must be at least 6 characters");
         }
 
-        if (userRepository.existsByUsername(user.getUsername())) {
+        // Only worth a query (and sparing the bcrypt work) when the filter cannot rule it out;
+        // the unique constraints catch whatever slips past
+        if (!isUsernameAvailable(user.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
-
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (!isEmailAvailable(user.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
 
-        user.setPassword(user.getPassword());
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         user.setRole(user.getRole() != null ? user.getRole() : User.Role.CUSTOMER);
 
-        return userRepository.save(user);
+        availabilityIndex.add(user.getUsername(), user.getEmail());
+        User saved = saveUnique(user);
+        dashboardCounters.userAdded(saved.getRole());
+        return saved;
     }
 
+    // The new password is hashed before the transaction starts, so bcrypt holds no DB connection
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User updateUser(User user) {
         if (user.getUserId() == null) {
             throw new IllegalArgumentException("User ID cannot be null for update");
@@ -73,39 +83,68 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Email cannot be empty");
         }
 
+        // Only update password if provided and not empty
+        String newPasswordHash = null;
+        if (user.getPassword() != null && !user.getPassword().trim().isEmpty()) {
+            if (user.getPassword().length() < 6) {
+                throw new IllegalArgumentException("Password must be at least 6 characters");
+            }
+            newPasswordHash = passwordHasher.hash(user.getPassword());
+        }
+
+        String passwordHash = newPasswordHash;
+        return transactionTemplate.execute(status -> applyUpdate(user, passwordHash));
+    }
+
+    private User applyUpdate(User user, String newPasswordHash) {
         // Check if user exists
         User existingUser = userRepository.findById(user.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + user.getUserId()));
 
         // Check if username is taken by another user
-        Optional<User> userWithSameUsername = userRepository.findByUsername(user.getUsername());
-        if (userWithSameUsername.isPresent() && !userWithSameUsername.get().getUserId().equals(user.getUserId())) {
-            throw new RuntimeException("Username already exists");
+        if (!user.getUsername().equals(existingUser.getUsername())
+                && availabilityIndex.mightContainUsername(user.getUsername())) {
+            Optional<User> userWithSameUsername = userRepository.findByUsername(user.getUsername());
+            if (userWithSameUsername.isPresent() && !userWithSameUsername.get().getUserId().equals(user.getUserId())) {
+                throw new RuntimeException("Username already exists");
+            }
         }
 
         // Check if email is taken by another user
-        Optional<User> userWithSameEmail = userRepository.findByEmail(user.getEmail());
-        if (userWithSameEmail.isPresent() && !userWithSameEmail.get().getUserId().equals(user.getUserId())) {
-            throw new RuntimeException("Email already exists");
+        if (!user.getEmail().equals(existingUser.getEmail())
+                && availabilityIndex.mightContainEmail(user.getEmail())) {
+            Optional<User> userWithSameEmail = userRepository.findByEmail(user.getEmail());
+            if (userWithSameEmail.isPresent() && !userWithSameEmail.get().getUserId().equals(user.getUserId())) {
+                throw new RuntimeException("Email already exists");
+            }
         }
 
         // Update fields
         existingUser.setUsername(user.getUsername());
         existingUser.setEmail(user.getEmail());
-        
-        // Only update password if provided and not empty
-        if (user.getPassword() != null && !user.getPassword().trim().isEmpty()) {
-            if (user.getPassword().length() < 6) {
-                throw new IllegalArgumentException("Password must be at least 6 characters");
-            }
-            existingUser.setPassword(user.getPassword());
+        if (newPasswordHash != null) {
+            existingUser.setPassword(newPasswordHash);
         }
 
-        return userRepository.save(existingUser);
+        availabilityIndex.add(existingUser.getUsername(), existingUser.getEmail());
+        return saveUnique(existingUser);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public boolean isUsernameAvailable(String username) {
+        return !availabilityIndex.mightContainUsername(username) || !userRepository.existsByUsername(username);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmailAvailable(String email) {
+        return !availabilityIndex.mightContainEmail(email) || !userRepository.existsByEmail(email);
+    }
+
+    // No surrounding transaction: the bcrypt check must not hold a DB connection
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User loginUser(String identifier, String password) {
         if (identifier == null || identifier.trim().isEmpty()) {
             throw new IllegalArgumentException("Email/Username cannot be empty");
@@ -116,8 +155,23 @@ public class UserServiceImpl implements UserService {
 
         Optional<User> userOpt = userRepository.findByUsernameOrEmail(identifier);
 
-        if (userOpt.isPresent() && password.equals(userOpt.get().getPassword())) {
-            return userOpt.get();
+        String stored = userOpt.map(User::getPassword).orElse(null);
+        PasswordHasher.Verification verification = passwordHasher.verify(password, stored);
+        if (userOpt.isPresent() && verification.matches()) {
+            User user = userOpt.get();
+            if (verification.needsRehash()) {
+                // Legacy plaintext (or an older cost) is replaced on the first successful login;
+                // if the pool is busy it is simply retried on a later one
+                try {
+                    String hash = passwordHasher.hash(password);
+                    if (userRepository.replacePassword(user.getUserId(), stored, hash) == 1) {
+                        user.setPassword(hash);
+                    }
+                } catch (IllegalStateException e) {
+                    // keep the login, the upgrade can wait
+                }
+            }
+            return user;
         }
 
         throw new RuntimeException("Invalid credentials");
@@ -142,51 +196,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    // Served from in-memory counters; no transaction, so a refresh never touches the database
     @Override
-    @Transactional(readOnly = true)
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
-    }
-
-    @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getAdminDashboard() {
-        Map<String, Object> dashboard = new HashMap<>();
-
-        // User Statistics
-        long totalUsers = userRepository.count();
-        long totalCustomers = userRepository.countByRole(User.Role.CUSTOMER);
-        long totalAdmins = userRepository.countByRole(User.Role.ADMIN);
-
-        // Order Statistics
-        long totalOrders = orderRepository.count();
-        long pendingOrders = orderRepository.countByStatus(Order.Status.PENDING);
-        long shippedOrders = orderRepository.countByStatus(Order.Status.SHIPPED);
-        long deliveredOrders = orderRepository.countByStatus(Order.Status.DELIVERED);
-        long cancelledOrders = orderRepository.countByStatus(Order.Status.CANCELLED);
-
-        // Product Statistics
-        long totalProducts = productRepository.count();
-
-        dashboard.put("users", Map.of(
-                "total", totalUsers,
-                "customers", totalCustomers,
-                "admins", totalAdmins
-        ));
-
-        dashboard.put("orders", Map.of(
-                "total", totalOrders,
-                "pending", pendingOrders,
-                "shipped", shippedOrders,
-                "delivered", deliveredOrders,
-                "cancelled", cancelledOrders
-        ));
-
-        dashboard.put("products", Map.of(
-                "total", totalProducts
-        ));
-
-        return dashboard;
+        return dashboardCounters.snapshot();
     }
 
     @Override
@@ -201,6 +215,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
+        dashboardCounters.userRoleChanged(user.getRole(), newRole);
         user.setRole(newRole);
         return userRepository.save(user);
     }
@@ -211,11 +226,11 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User ID cannot be null");
         }
 
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("User not found with ID: " + userId);
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
-        userRepository.deleteById(userId);
+        userRepository.delete(user);
+        dashboardCounters.userRemoved(user.getRole());
     }
 
     @Override
@@ -223,4 +238,24 @@ public class UserServiceImpl implements UserService {
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
     }
+
+    // Flushes so a duplicate surfaces here, turned into the same messages as the pre-checks
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName() : null;
+            if (constraint == null) {
+                constraint = e.getMostSpecificCause().getMessage();
+            }
+            if (constraint != null && constraint.contains(User.USERNAME_CONSTRAINT)) {
+                throw new RuntimeException("Username already exists");
+            }
+            if (constraint != null && constraint.contains(User.EMAIL_CONSTRAINT)) {
+                throw new RuntimeException("Email already exists");
+            }
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.echocart.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Verifies {@code Authorization: Bearer <token>} in memory and exposes the caller as an
+ * {@link AuthPrincipal} request attribute. Requests without the header pass through
+ * unauthenticated (endpoints decide what they need); a bad, expired or revoked token
+ * gets 401 so the client knows to log in again.
+ */
+@Component
+public class AuthFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AuthTokenService tokenService;
+    private final TokenDenyList denyList;
+    private final ObjectMapper objectMapper;
+
+    public AuthFilter(AuthTokenService tokenService, TokenDenyList denyList, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.denyList = denyList;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AuthPrincipal principal = tokenService.verify(header.substring(BEARER.length()).trim());
+        if (principal == null || denyList.isRevoked(principal)) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    Map.of("success", false, "message", "Session expired, please log in again"));
+            return;
+        }
+        request.setAttribute(AuthPrincipal.ATTRIBUTE, principal);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.echocart.backend.web;
+
+import com.echocart.backend.entity.User;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The caller as proven by a verified auth token; AuthFilter puts it on the request.
+ */
+public record AuthPrincipal(Long userId, User.Role role, long tokenId, long issuedAt, long expiresAt) {
+
+    public static final String ATTRIBUTE = AuthPrincipal.class.getName();
+
+    public boolean isAdmin() {
+        return role == User.Role.ADMIN;
+    }
+
+    /**
+     * The principal of the request being handled on this thread, or null if the request
+     * carried no valid token.
+     */
+    public static AuthPrincipal current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+                : (AuthPrincipal) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,118 @@
+package com.echocart.backend.web;
+
+import com.echocart.backend.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues and verifies stateless auth tokens: {@code body.signature}, both base64url, where
+ * the 33-byte body is userId, role, a random token id, issued-at and expires-at (millis)
+ * and the signature is HMAC-SHA256 over the body. Verifying needs no database.
+ *
+ * The key comes from echocart.auth.secret (base64, at least 32 bytes). Without one a
+ * random key is generated, which logs everyone out on restart and does not work across
+ * instances.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int BODY_LENGTH = 8 + 1 + 8 + 8 + 8;
+
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> macs;
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    public AuthTokenService(@Value("${echocart.auth.secret:}") String secret,
+                            @Value("${echocart.auth.token-ttl-minutes:720}") long ttlMinutes) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+            log.warn("echocart.auth.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret.trim());
+            if (keyBytes.length < 32) {
+                throw new IllegalStateException("echocart.auth.secret must decode to at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlMillis = ttlMinutes * 60_000;
+        // Mac is not thread-safe and init is not free, so keep one per thread
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 not available", e);
+            }
+        });
+    }
+
+    public String issue(User user) {
+        long now = System.currentTimeMillis();
+        ByteBuffer body = ByteBuffer.allocate(BODY_LENGTH)
+                .putLong(user.getUserId())
+                .put((byte) user.getRole().ordinal())
+                .putLong(random.nextLong())
+                .putLong(now)
+                .putLong(now + ttlMillis);
+        byte[] bytes = body.array();
+        return encoder.encodeToString(bytes) + "." + encoder.encodeToString(sign(bytes));
+    }
+
+    /**
+     * Returns the principal for a well-formed, correctly signed, unexpired token, else null.
+     */
+    public AuthPrincipal verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        byte[] body;
+        byte[] signature;
+        try {
+            body = decoder.decode(token.substring(0, dot));
+            signature = decoder.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (body.length != BODY_LENGTH || !MessageDigest.isEqual(sign(body), signature)) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        long userId = buffer.getLong();
+        int role = buffer.get();
+        long tokenId = buffer.getLong();
+        long issuedAt = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt < System.currentTimeMillis() || role < 0 || role >= User.Role.values().length) {
+            return null;
+        }
+        return new AuthPrincipal(userId, User.Role.values()[role], tokenId, issuedAt, expiresAt);
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    private byte[] sign(byte[] body) {
+        return macs.get().doFinal(body);
+    }
+}
@@ -0,0 +1,224 @@
+package com.echocart.backend.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers responses to requests sent with an Idempotency-Key.
+ *
+ * Lookups go to an in-memory map first; the idempotency_keys table backs it so a retry
+ * still replays after a restart or on another instance. A key is claimed with an
+ * INSERT IGNORE before the request runs, so only one caller across instances executes
+ * it. Callers on this instance that arrive while it runs wait for its result; callers
+ * elsewhere get a conflict until it completes.
+ *
+ * Completed entries stay in memory for memory-ttl-minutes and in the table for ttl-hours.
+ * Claims expire after claim-timeout-seconds, so a crashed request can be retried.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final String CLAIM_SQL =
+            "INSERT IGNORE INTO idempotency_keys (scoped_key, fingerprint, created_at, expires_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT fingerprint, status_code, content_type, response_body, expires_at FROM idempotency_keys " +
+            "WHERE scoped_key = ?";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ?, expires_at = ? " +
+            "WHERE scoped_key = ? AND fingerprint = ?";
+    private static final String DELETE_SQL = "DELETE FROM idempotency_keys WHERE scoped_key = ? AND fingerprint = ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE scoped_key = ? AND expires_at < ?";
+    private static final String SWEEP_SQL = "DELETE FROM idempotency_keys WHERE expires_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration memoryTtl;
+    private final Duration claimTimeout;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${echocart.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${echocart.idempotency.memory-ttl-minutes:10}") long memoryTtlMinutes,
+                            @Value("${echocart.idempotency.claim-timeout-seconds:60}") long claimTimeoutSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memoryTtl = Duration.ofMinutes(memoryTtlMinutes);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+    }
+
+    /**
+     * Either claims the key for the caller (who must then {@link #complete} or
+     * {@link #abandon} it) or resolves what the caller should send instead.
+     */
+    public Decision begin(String scopedKey, String fingerprint) {
+        while (true) {
+            Entry fresh = new Entry(fingerprint);
+            Entry entry = entries.putIfAbsent(scopedKey, fresh);
+            if (entry == null) {
+                return claim(scopedKey, fresh);
+            }
+            if (entry.isExpired()) {
+                entries.remove(scopedKey, entry);
+                continue;
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return Decision.mismatch();
+            }
+
+            StoredResponse response = await(entry);
+            if (response != null) {
+                return Decision.replay(response);
+            }
+            if (!entry.result.isDone()) {
+                return Decision.inProgress();
+            }
+            // The running request gave its claim up; try to take it
+        }
+    }
+
+    public void complete(String scopedKey, String fingerprint, StoredResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(), response.body(),
+                Timestamp.valueOf(now.plus(ttl)), scopedKey, fingerprint);
+        Entry entry = entries.get(scopedKey);
+        if (entry != null && entry.fingerprint.equals(fingerprint)) {
+            entry.expiresAt = now.plus(memoryTtl);
+            entry.result.complete(response);
+        }
+    }
+
+    /**
+     * Drops the claim without recording a response (e.g. the request failed with a 5xx),
+     * so the next retry runs again. Waiters re-race for the key.
+     */
+    public void abandon(String scopedKey, String fingerprint) {
+        try {
+            jdbcTemplate.update(DELETE_SQL, scopedKey, fingerprint);
+        } finally {
+            Entry entry = entries.get(scopedKey);
+            if (entry != null && entry.fingerprint.equals(fingerprint) && entries.remove(scopedKey, entry)) {
+                entry.result.complete(null);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${echocart.idempotency.sweep-interval-ms:300000}")
+    public void sweep() {
+        try {
+            entries.values().removeIf(entry -> entry.isExpired() && entry.result.isDone());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int deleted;
+            int total = 0;
+            do {
+                deleted = jdbcTemplate.update(SWEEP_SQL, now, 10_000);
+                total += deleted;
+            } while (deleted == 10_000);
+            if (total > 0) {
+                log.info("Removed {} expired idempotency keys", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("Idempotency key sweep failed", e);
+        }
+    }
+
+    private Decision claim(String scopedKey, Entry entry) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // An expired leftover (finished long ago, or a claim whose instance died) must not block the key
+            jdbcTemplate.update(DELETE_EXPIRED_SQL, scopedKey, Timestamp.valueOf(now));
+            int inserted = jdbcTemplate.update(CLAIM_SQL, scopedKey, entry.fingerprint,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now.plus(claimTimeout)));
+            if (inserted == 1) {
+                return Decision.proceed();
+            }
+
+            List<Decision> existing = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+                if (!entry.fingerprint.equals(rs.getString("fingerprint"))) {
+                    return Decision.mismatch();
+                }
+                int status = rs.getInt("status_code");
+                if (rs.wasNull()) {
+                    return Decision.inProgress();
+                }
+                StoredResponse response = new StoredResponse(status, rs.getString("content_type"),
+                        rs.getString("response_body"));
+                entry.expiresAt = LocalDateTime.now().plus(memoryTtl);
+                entry.result.complete(response);
+                return Decision.replay(response);
+            }, scopedKey);
+
+            if (existing.isEmpty() || existing.get(0).outcome() != Outcome.REPLAY) {
+                // Nothing cached for local waiters; let them look again themselves
+                entries.remove(scopedKey, entry);
+                entry.result.complete(null);
+            }
+            // Removed between our insert and select; the client can simply retry
+            return existing.isEmpty() ? Decision.inProgress() : existing.get(0);
+        } catch (RuntimeException e) {
+            entries.remove(scopedKey, entry);
+            entry.result.complete(null);
+            throw e;
+        }
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.result.get(claimTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    public enum Outcome {
+        PROCEED, REPLAY, IN_PROGRESS, MISMATCH
+    }
+
+    public record Decision(Outcome outcome, StoredResponse response) {
+        static Decision proceed() { return new Decision(Outcome.PROCEED, null); }
+        static Decision replay(StoredResponse response) { return new Decision(Outcome.REPLAY, response); }
+        static Decision inProgress() { return new Decision(Outcome.IN_PROGRESS, null); }
+        static Decision mismatch() { return new Decision(Outcome.MISMATCH, null); }
+    }
+
+    public record StoredResponse(int status, String contentType, String body) {}
+
+    private static class Entry {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        // Only set once completed; a running request's entry does not expire
+        volatile LocalDateTime expiresAt;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired() {
+            LocalDateTime expires = expiresAt;
+            return expires != null && expires.isBefore(LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.echocart.backend.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles login attempts per client IP and per login name, checked before the user
+ * lookup and the password hash so a credential-stuffing burst costs neither. The IP
+ * bucket limits one source trying many accounts; the account bucket limits many sources
+ * (a botnet) trying one account. A rejected IP does not spend an account token.
+ *
+ * The client IP is the socket address unless trust-forwarded-for is set, in which case
+ * the last X-Forwarded-For entry (the one our own proxy appended) is used.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byAccount;
+    private final boolean trustForwardedFor;
+
+    public LoginRateLimiter(@Value("${echocart.login-limit.ip.capacity:30}") int ipCapacity,
+                            @Value("${echocart.login-limit.ip.refill-per-minute:30}") double ipRefillPerMinute,
+                            @Value("${echocart.login-limit.account.capacity:10}") int accountCapacity,
+                            @Value("${echocart.login-limit.account.refill-per-minute:5}") double accountRefillPerMinute,
+                            @Value("${echocart.login-limit.max-keys:100000}") int maxKeys,
+                            @Value("${echocart.login-limit.stripes:64}") int stripes,
+                            @Value("${echocart.login-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPerMinute / 60, maxKeys, stripes);
+        this.byAccount = new TokenBucketLimiter(accountCapacity, accountRefillPerMinute / 60, maxKeys, stripes);
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    /**
+     * Takes a token from the caller's IP and from the login name. Returns 0 if the login
+     * may proceed, otherwise the milliseconds to wait before trying again.
+     */
+    public long tryAcquire(HttpServletRequest request, String identifier) {
+        long wait = byIp.tryAcquire(clientIp(request));
+        if (wait > 0 || identifier == null || identifier.isBlank()) {
+            return wait;
+        }
+        return byAccount.tryAcquire(identifier.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "ip", byIp.getStats(),
+                "account", byAccount.getStats()
+        );
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) {
+                    return last;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
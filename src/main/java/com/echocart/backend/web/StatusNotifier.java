@@ -0,0 +1,209 @@
+package com.echocart.backend.web;
+
+import com.echocart.backend.entity.OutboxEvent;
+import com.echocart.backend.outbox.OutboxMessage;
+import com.echocart.backend.outbox.OutboxSubscriber;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events for payment and order status, so clients stop polling
+ * GET /api/payments/{id}.
+ *
+ * Subscribers are SseEmitters on async servlet requests, so an idle subscription holds
+ * a socket and a map entry but no thread. Updates come from the outbox (this is an
+ * {@link OutboxSubscriber}) and are fanned out to the emitters of the affected
+ * "payment:{id}" / "order:{id}" topic; a payment outcome is also sent to its order's
+ * topic. A comment line goes to every emitter each heartbeat-seconds so dead
+ * connections are noticed; writes run on virtual threads so one slow client cannot
+ * stall the others.
+ *
+ * Only subscribers connected to the instance that delivers the outbox event are
+ * notified; with several instances behind a load balancer clients fall back on the
+ * emitter timeout and reconnect, which re-sends the current state.
+ */
+@Component
+public class StatusNotifier implements OutboxSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusNotifier.class);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final long heartbeatSeconds;
+    private final int maxSubscribers;
+
+    private final Map<String, Set<SseEmitter>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-writer-", 0).factory());
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sse-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusNotifier(ObjectMapper objectMapper,
+                          @Value("${echocart.notifications.timeout-ms:600000}") long timeoutMs,
+                          @Value("${echocart.notifications.heartbeat-seconds:30}") long heartbeatSeconds,
+                          @Value("${echocart.notifications.max-subscribers:50000}") int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        topics.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        writers.shutdownNow();
+    }
+
+    public static String paymentTopic(Long paymentId) {
+        return "payment:" + paymentId;
+    }
+
+    public static String orderTopic(Long orderId) {
+        return "order:" + orderId;
+    }
+
+    /**
+     * Registers a new emitter on the topic. Subscribe before reading the current state,
+     * so a change committed in between is pushed rather than lost.
+     */
+    public SseEmitter subscribe(String topic) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open notification streams, please poll instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        topics.compute(topic, (key, existing) -> {
+            Set<SseEmitter> set = existing == null ? ConcurrentHashMap.newKeySet() : existing;
+            set.add(emitter);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(topic, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Sends one event to a single emitter, completing the stream afterwards if
+     * {@code last} (e.g. the payment already has its final status).
+     */
+    public void send(SseEmitter emitter, String name, Object data, boolean last) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            eventsSent.increment();
+            if (last) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            sendFailures.increment();
+            emitter.completeWithError(e);
+        }
+    }
+
+    @Override
+    public boolean accepts(OutboxEvent.Type type) {
+        return type == OutboxEvent.Type.ORDER_STATUS_CHANGED || type == OutboxEvent.Type.PAYMENT_PROCESSED;
+    }
+
+    // Best effort: a missed push is recovered by the client reconnecting, so this never throws
+    @Override
+    public void handle(OutboxMessage message) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data;
+        try {
+            data = objectMapper.readValue(message.payload(), new TypeReference<HashMap<String, Object>>() {});
+        } catch (IOException e) {
+            log.warn("Unreadable payload in outbox event {}", message.eventId());
+            return;
+        }
+
+        if (message.type() == OutboxEvent.Type.PAYMENT_PROCESSED) {
+            publish(paymentTopic(message.aggregateId()), "payment", data, true);
+            Object orderId = data.get("orderId");
+            if (orderId instanceof Number number) {
+                publish(orderTopic(number.longValue()), "payment", data, false);
+            }
+        } else {
+            data.put("status", data.get("to"));
+            publish(orderTopic(message.aggregateId()), "order", data, false);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "subscribers", subscriberCount.get(),
+                "topics", topics.size(),
+                "maxSubscribers", maxSubscribers,
+                "eventsSent", eventsSent.sum(),
+                "sendFailures", sendFailures.sum()
+        );
+    }
+
+    private void publish(String topic, String name, Object data, boolean last) {
+        Set<SseEmitter> emitters = topics.get(topic);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            writers.execute(() -> send(emitter, name, data, last));
+        }
+    }
+
+    // For emitters that are dropped before being returned to the client
+    public void unsubscribe(String topic, SseEmitter emitter) {
+        topics.computeIfPresent(topic, (key, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void sendHeartbeats() {
+        try {
+            topics.values().forEach(emitters -> emitters.forEach(emitter -> writers.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            })));
+        } catch (RuntimeException e) {
+            log.error("SSE heartbeat failed", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.echocart.backend.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string (client IP, login name). Each key may burst
+ * up to {@code capacity} requests and then gets {@code refillPerSecond} more per second.
+ *
+ * Keys are spread over lock stripes, each an access-ordered map holding at most
+ * {@code maxKeys / stripes} buckets, so memory is bounded however many keys an attacker
+ * makes up: the least recently used bucket of a full stripe is dropped. Only that one
+ * stripe is locked per call, and only for a map lookup and a bit of arithmetic.
+ */
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Stripe[] stripes;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, int maxKeys, int stripeCount) {
+        this(capacity, refillPerSecond, maxKeys, stripeCount, System::nanoTime);
+    }
+
+    // The clock is a parameter so tests can move time without sleeping
+    TokenBucketLimiter(int capacity, double refillPerSecond, int maxKeys, int stripeCount, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        // Next power of two, so a stripe is picked with a mask
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        int perStripe = Math.max(1, maxKeys / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 if the request may go ahead, otherwise the
+     * number of milliseconds until a token will be available.
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        long now = nanoClock.getAsLong();
+        long waitNanos;
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * refillPerNano);
+                bucket.updatedAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                waitNanos = 0;
+            } else {
+                waitNanos = (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+            }
+        }
+
+        if (waitNanos == 0) {
+            admitted.increment();
+            return 0;
+        }
+        rejected.increment();
+        return Math.max(1, waitNanos / 1_000_000);
+    }
+
+    public Map<String, Object> getStats() {
+        int tracked = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                tracked += stripe.buckets.size();
+            }
+        }
+        return Map.of(
+                "admitted", admitted.sum(),
+                "rejected", rejected.sum(),
+                "trackedKeys", tracked,
+                "evictions", evictions.sum()
+        );
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private final class Stripe {
+        final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int maxSize) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
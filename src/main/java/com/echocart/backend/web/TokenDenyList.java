@@ -0,0 +1,54 @@
+package com.echocart.backend.web;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens, kept only until they would have expired anyway: a logged-out token is
+ * one entry (tokenId -> expiry), and revoking a user (role change, deletion) is one entry
+ * that rejects every token issued to them before that moment. Lives in memory, so each
+ * instance only knows about revocations it handled itself.
+ */
+@Component
+public class TokenDenyList {
+
+    private final Map<Long, Long> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> epoch millis; tokens issued at or before it are rejected
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    private final AuthTokenService tokenService;
+
+    public TokenDenyList(AuthTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    public void revoke(AuthPrincipal principal) {
+        revokedTokens.put(principal.tokenId(), principal.expiresAt());
+    }
+
+    public void revokeUser(Long userId) {
+        revokedUsers.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(AuthPrincipal principal) {
+        if (revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        Long notBefore = revokedUsers.get(principal.userId());
+        return notBefore != null && principal.issuedAt() <= notBefore;
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${echocart.auth.deny-list-sweep-ms:600000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        // Every token issued before the cut-off has expired by cut-off + ttl
+        revokedUsers.values().removeIf(cutoff -> cutoff + tokenService.getTtlMillis() < now);
+    }
+}
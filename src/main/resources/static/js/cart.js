@@ -240,7 +240,8 @@ class CartManager {
         }
 
         try {
-            const response = await fetch(`http://localhost:8081/api/cart/user/${userId}`, {
+            // Lines, product details and totals all come back in one call
+            const response = await fetch(`http://localhost:8081/api/cart/user/${userId}/summary`, {
                 method: 'GET',
                 headers: {
                     'Content-Type': 'application/json'
@@ -249,46 +250,22 @@ class CartManager {
             
             const data = await response.json();
             
-            if (data.success && data.cartItems) {
-                // Convert backend cart items to frontend format
-                const cartItems = await Promise.all(data.cartItems.map(async (item) => {
-                    try {
-                        // Get product details
-                        const productResponse = await fetch(`http://localhost:8081/api/products/${item.productId}`);
-                        const productData = await productResponse.json();
-                        
-                        if (productData.success) {
-                            return {
-                                id: item.productId,
-                                cartId: item.cartId,
-                                name: productData.product.name,
-                                description: productData.product.description,
-                                price: productData.product.price,
-                                imageUrl: productData.product.imageUrl,
-                                code: `PRD${item.productId}`,
-                                quantity: item.quantity
-                            };
-                        }
-                    } catch (error) {
-                        console.error('Error fetching product details:', error);
-                    }
-                    
-                    // Fallback if product details can't be fetched
-                    return {
-                        id: item.productId,
-                        cartId: item.cartId,
-                        name: `Product ${item.productId}`,
-                        description: 'Product description',
-                        price: 100,
-                        imageUrl: 'https://images.unsplash.com/photo-1526170375885-4d8ecf77b99f?q=80&w=400&auto=format&fit=crop',
-                        code: `PRD${item.productId}`,
-                        quantity: item.quantity
-                    };
+            if (data.success && data.cart) {
+                // Convert backend cart lines to frontend format
+                const cartItems = data.cart.items.map(item => ({
+                    id: item.productId,
+                    cartId: item.cartId,
+                    name: item.name,
+                    description: item.available ? 'In stock' : `Only ${item.stockQuantity} left in stock`,
+                    price: item.price,
+                    imageUrl: item.imageUrl,
+                    code: `PRD${item.productId}`,
+                    quantity: item.quantity
                 }));
                 
                 this.cart = cartItems;
                 this.saveCart();
-                this.displayCart(cartItems);
+                this.displayCart(cartItems, data.cart.grandTotal);
             } else {
                 this.displayCart(this.cart);
             }
@@ -299,7 +276,7 @@ class CartManager {
     }
 
     // Display cart items
-    displayCart(cartData) {
+    displayCart(cartData, grandTotal) {
         const cartTableBody = document.getElementById('cart-table-body');
         const cartEmpty = document.getElementById('cart-empty');
         const cartItemsContainer = document.getElementById('cart-items');
@@ -360,7 +337,9 @@ class CartManager {
 
         const cartTotalElement = document.getElementById('cart-total');
         if (cartTotalElement) {
-            cartTotalElement.textContent = `₹${total.toLocaleString()}`;
+            // Prefer the server-computed total when we have one
+            const displayTotal = grandTotal !== undefined ? grandTotal : total;
+            cartTotalElement.textContent = `₹${displayTotal.toLocaleString()}`;
         }
     }
 
@@ -52,12 +52,17 @@ document.addEventListener('DOMContentLoaded', function() {
 // Setup orders modal
 function setupOrdersModal() {
     const ordersModal = document.getElementById('ordersModal');
-    ordersModal.addEventListener('show.bs.modal', loadUserOrders);
+    ordersModal.addEventListener('show.bs.modal', () => loadUserOrders());
 }
 
 // Logout functionality
 logoutBtn.addEventListener('click', function(e) {
     e.preventDefault();
+    // Revoke the token server-side; no need to wait for it
+    fetch('http://localhost:8081/api/users/logout', {
+        method: 'POST',
+        headers: { 'Authorization': `Bearer ${localStorage.getItem('userToken')}` }
+    }).catch(() => {});
     localStorage.clear();
     window.location.href = 'index.html';
 });
@@ -70,10 +75,21 @@ async function loadProducts() {
     setTimeout(async () => {
         // Use the API_BASE for consistency
         const API_BASE = 'http://localhost:8081/api';
-        await fetch(`${API_BASE}/products`)
-        .then(res => res.json())
-        .then(data => {
-            displayProducts(data.products || sampleProducts);
+        // Keyset-paged: follow nextCursor until the last page
+        const fetchAll = async () => {
+            const products = [];
+            let cursor = null;
+            do {
+                const query = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+                const data = await fetch(`${API_BASE}/products?limit=200${query}`).then(res => res.json());
+                products.push(...(data.products || []));
+                cursor = data.nextCursor;
+            } while (cursor);
+            return products;
+        };
+        await fetchAll()
+        .then(products => {
+            displayProducts(products.length ? products : sampleProducts);
         })
         .catch(() => {
             // Use sample data if API fails
@@ -137,8 +153,10 @@ function showLoading(show) {
     }
 }
 
-// Load user orders
-async function loadUserOrders() {
+// Load user orders, one page at a time (newest first)
+let ordersNextCursor = null;
+
+async function loadUserOrders(cursor = null) {
     const userId = localStorage.getItem('userId');
     const ordersLoading = document.getElementById('orders-loading');
     const ordersEmpty = document.getElementById('orders-empty');
@@ -146,18 +164,22 @@ async function loadUserOrders() {
     
     // Show loading state
     ordersLoading.style.display = 'block';
-    ordersEmpty.style.display = 'none';
-    ordersContent.style.display = 'none';
+    if (!cursor) {
+        ordersEmpty.style.display = 'none';
+        ordersContent.style.display = 'none';
+    }
     
     try {
         // Use the API_BASE from main.js for consistency
         const API_BASE = 'http://localhost:8081/api';
-        const response = await fetch(`${API_BASE}/orders/user/${userId}`);
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        const response = await fetch(`${API_BASE}/orders/user/${userId}${query}`);
         if (response.ok) {
             const data = await response.json();
+            ordersNextCursor = data.nextCursor || null;
             if (data.success && data.orders && data.orders.length > 0) {
-                displayOrders(data.orders);
-            } else {
+                displayOrders(data.orders, Boolean(cursor));
+            } else if (!cursor) {
                 showEmptyOrders();
             }
         } else {
@@ -166,18 +188,22 @@ async function loadUserOrders() {
     } catch (error) {
         console.error('Error loading orders:', error);
         showAlert('Failed to load orders. Please check if the backend server is running.', 'danger');
-        showEmptyOrders();
+        if (!cursor) {
+            showEmptyOrders();
+        }
     } finally {
         ordersLoading.style.display = 'none';
     }
 }
 
-// Display orders
-function displayOrders(orders) {
+// Display orders; append adds a further page below the ones already shown
+function displayOrders(orders, append = false) {
     const ordersContent = document.getElementById('orders-content');
     const ordersTableBody = document.getElementById('orders-table-body');
     
-    ordersTableBody.innerHTML = '';
+    if (!append) {
+        ordersTableBody.innerHTML = '';
+    }
     
     orders.forEach(order => {
         const row = document.createElement('tr');
@@ -192,9 +218,23 @@ function displayOrders(orders) {
         ordersTableBody.appendChild(row);
     });
     
+    updateLoadMoreOrders(ordersContent);
     ordersContent.style.display = 'block';
 }
 
+function updateLoadMoreOrders(ordersContent) {
+    let loadMore = document.getElementById('orders-load-more');
+    if (!loadMore) {
+        loadMore = document.createElement('button');
+        loadMore.id = 'orders-load-more';
+        loadMore.className = 'btn btn-outline-primary btn-sm mt-2';
+        loadMore.textContent = 'Load more orders';
+        loadMore.addEventListener('click', () => loadUserOrders(ordersNextCursor));
+        ordersContent.appendChild(loadMore);
+    }
+    loadMore.style.display = ordersNextCursor ? 'inline-block' : 'none';
+}
+
 // Show empty orders state
 function showEmptyOrders() {
     document.getElementById('orders-empty').style.display = 'block';
@@ -10,6 +10,21 @@ const apiRequest = async (url, options = {}) => {
     return response.json();
 };
 
+// Revokes the stored token on the server; logout goes ahead even if this fails
+const revokeSession = async () => {
+    const token = localStorage.getItem('userToken');
+    if (!token) return;
+    try {
+        await fetch(`${API_BASE}/users/logout`, {
+            method: 'POST',
+            headers: { 'Authorization': `Bearer ${token}` },
+            keepalive: true
+        });
+    } catch (error) {
+        console.warn('Token revocation failed:', error);
+    }
+};
+
 const showError = (element, message) => {
     element.textContent = message;
     element.classList.remove('d-none');
@@ -21,6 +36,7 @@ const getErrorMessage = (error) => {
     }
     if (error.message.includes('HTTP 401')) return 'Invalid email or password. Please try again.';
     if (error.message.includes('HTTP 400')) return 'Invalid data. Please check your inputs.';
+    if (error.message.includes('HTTP 429')) return 'Too many login attempts. Please wait a minute and try again.';
     if (error.message.includes('HTTP 409')) return 'This email is already registered. Please use a different email.';
     if (error.message.includes('HTTP 500')) return 'Server error. Please try again later.';
     return `Request failed: ${error.message}`;
@@ -52,7 +68,7 @@ if (loginForm) {
                     userMode: data.isAdmin ? 'admin' : 'customer',
                     userEmail: data.email,
                     username: data.username,
-                    userToken: `logged-in-${data.userId}`
+                    userToken: data.token
                 }).forEach(([key, value]) => localStorage.setItem(key, value));
                 
                 window.location.href = data.isAdmin ? 'admin.html' : 'customer.html';
@@ -66,6 +82,34 @@ if (loginForm) {
     });
 }
 
+// LIVE AVAILABILITY CHECK on the register forms (name and email fields)
+const watchAvailability = (inputId, param, label) => {
+    const input = document.getElementById(inputId);
+    if (!input) return;
+    const feedback = document.createElement('div');
+    feedback.className = 'invalid-feedback';
+    input.after(feedback);
+    input.addEventListener('blur', async () => {
+        const value = input.value.trim();
+        input.classList.remove('is-invalid');
+        if (!value) return;
+        try {
+            const data = await apiRequest(`${API_BASE}/users/availability?${param}=${encodeURIComponent(value)}`);
+            if (data[param] && !data[param].available) {
+                feedback.textContent = `This ${label} is already taken.`;
+                input.classList.add('is-invalid');
+            }
+        } catch (error) {
+            // Advisory only; registration itself reports duplicates
+            console.warn('Availability check failed:', error);
+        }
+    });
+};
+watchAvailability('customerRegisterName', 'username', 'name');
+watchAvailability('customerRegisterEmail', 'email', 'email');
+watchAvailability('adminRegisterName', 'username', 'name');
+watchAvailability('adminRegisterEmail', 'email', 'email');
+
 // CUSTOMER REGISTER FORM
 const customerRegisterForm = document.getElementById('customer-register-form');
 if (customerRegisterForm) {
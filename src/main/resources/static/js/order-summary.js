@@ -79,43 +79,32 @@ async function confirmOrder() {
     confirmOrderBtn.innerHTML = '<span class="spinner-border spinner-border-sm me-2"></span>Processing...';
     confirmOrderBtn.disabled = true;
     
-    const orderData = {
-        userId: parseInt(userId),
-        items: cartItems.map(item => ({
-            productId: item.id,
-            quantity: item.quantity,
-            price: item.price
-        })),
-        totalAmount: cartItems.reduce((sum, item) => sum + (item.price * item.quantity), 0)
-    };
-    
+    // The server prices the order from the user's cart, takes the stock and clears the cart
     try {
-        const response = await fetch('http://localhost:8081/api/orders', {
-            method: 'POST',
-            headers: {
-                'Content-Type': 'application/json'
-            },
-            body: JSON.stringify(orderData)
+        const response = await fetch(`http://localhost:8081/api/orders/checkout?userId=${userId}`, {
+            method: 'POST'
         });
-        
-        if (response.ok) {
-            const result = await response.json();
-            showOrderConfirmed(result);
+        const result = await response.json();
+
+        if (response.ok && result.success) {
+            showOrderConfirmed({
+                userId: result.order.userId,
+                orderId: result.order.orderId,
+                totalAmount: result.order.totalAmount,
+                orderDate: result.order.orderDate,
+                orderStatus: result.order.status,
+                paymentStatus: 'PENDING'
+            });
         } else {
-            throw new Error('Failed to create order');
+            alert(result.message || 'Failed to place order');
+            confirmOrderBtn.innerHTML = 'Confirm Order';
+            confirmOrderBtn.disabled = false;
         }
     } catch (error) {
         console.error('Error creating order:', error);
-        // Demo success for testing
-        const demoResult = {
-            userId: userId,
-            orderId: Math.floor(Math.random() * 10000) + 1000,
-            totalAmount: orderData.totalAmount,
-            orderDate: new Date().toISOString(),
-            orderStatus: 'PENDING',
-            paymentStatus: 'PENDING'
-        };
-        showOrderConfirmed(demoResult);
+        alert('Failed to place order. Please try again.');
+        confirmOrderBtn.innerHTML = 'Confirm Order';
+        confirmOrderBtn.disabled = false;
     }
 }
 
@@ -155,35 +144,62 @@ function showOrderConfirmed(orderResult) {
 async function proceedToPayment() {
     proceedPaymentBtn.innerHTML = '<span class="spinner-border spinner-border-sm me-2"></span>Processing Payment...';
     proceedPaymentBtn.disabled = true;
-    
+
+    // One key per order, so a retried click cannot charge twice
+    if (!currentOrderData.paymentKey) {
+        currentOrderData.paymentKey = crypto.randomUUID();
+    }
+
     try {
-        const response = await fetch(`http://localhost:8081/api/orders/${currentOrderData.orderId}/payment`, {
+        const response = await fetch('http://localhost:8081/api/payments', {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Idempotency-Key': currentOrderData.paymentKey
             },
-            body: JSON.stringify({ paymentMethod: 'card' })
+            body: JSON.stringify({ orderId: currentOrderData.orderId, amount: currentOrderData.totalAmount })
         });
-        
-        if (response.ok) {
-            const result = await response.json();
-            showPaymentSuccess(result);
+        const result = await response.json();
+
+        if (response.ok && result.success) {
+            // The payment is charged in the background; the server pushes the outcome
+            waitForPayment(result.payment.paymentId);
         } else {
-            throw new Error('Payment failed');
+            paymentFailed(result.message || 'Payment failed');
         }
     } catch (error) {
         console.error('Payment error:', error);
-        // Demo payment success
-        const paymentResult = {
-            ...currentOrderData,
-            orderStatus: 'PENDING',
-            paymentStatus: 'COMPLETED'
-        };
-        showPaymentSuccess(paymentResult);
+        paymentFailed('Payment failed. Please try again.');
     }
-    
-    // Clear cart after payment
-    localStorage.removeItem('cart');
+}
+
+function waitForPayment(paymentId) {
+    const events = new EventSource(`http://localhost:8081/api/notifications/payments/${paymentId}`);
+    events.addEventListener('payment', event => {
+        const payment = JSON.parse(event.data);
+        if (payment.status === 'PENDING') {
+            return;
+        }
+        events.close();
+        if (payment.status === 'COMPLETED') {
+            // Clear cart after payment
+            localStorage.removeItem('cart');
+            showPaymentSuccess({
+                ...currentOrderData,
+                orderStatus: 'PENDING',
+                paymentStatus: payment.status
+            });
+        } else {
+            currentOrderData.paymentKey = null;
+            paymentFailed(payment.failureReason || 'Payment failed');
+        }
+    });
+}
+
+function paymentFailed(message) {
+    alert(message);
+    proceedPaymentBtn.innerHTML = 'Proceed to Payment';
+    proceedPaymentBtn.disabled = false;
 }
 
 // Show payment success
@@ -284,17 +284,25 @@ function storeProduct(product) {
 // Load products from backend on page load
 async function loadStoredProducts() {
     try {
-        // Fetch from backend
-        const response = await fetch('http://localhost:8081/api/products', {
-            method: 'GET',
-            headers: {
-                'Content-Type': 'application/json'
-            }
-        });
+        // Fetch from backend; the list is keyset-paged, so follow nextCursor to the end
+        const backendProducts = [];
+        let cursor = null;
+        let response;
+        do {
+            const query = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+            response = await fetch(`http://localhost:8081/api/products?limit=200${query}`, {
+                method: 'GET',
+                headers: {
+                    'Content-Type': 'application/json'
+                }
+            });
+            if (!response.ok) break;
+            const data = await response.json();
+            backendProducts.push(...(data.products || []));
+            cursor = data.nextCursor;
+        } while (cursor);
         
         if (response.ok) {
-            const data = await response.json();
-            const backendProducts = data.products || [];
             console.log('Loaded products from backend:', backendProducts);
             
             // Map backend products to frontend format
@@ -0,0 +1,50 @@
+package com.echocart.backend;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * One embedded MariaDB per test JVM, for tests that need the real SQL dialect, unique
+ * keys and row locks rather than mocks. Started on first use and stopped by MariaDB4j's
+ * shutdown hook; every caller shares the same "echocart" schema.
+ */
+public final class EmbeddedMariaDb {
+
+    private static final String DATABASE = "echocart";
+
+    private static String url;
+
+    private EmbeddedMariaDb() {
+    }
+
+    public static synchronized String url() {
+        if (url == null) {
+            try {
+                DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+                config.setPort(0);
+                // mariadbd refuses to start as root (as in CI containers) without this
+                config.addArg("--user=root");
+                DB db = DB.newEmbeddedDB(config.build());
+                db.start();
+                // The driver creates the schema; DB.createDB shells out to the mariadb client
+                url = "jdbc:mysql://localhost:" + db.getConfiguration().getPort() + "/" + DATABASE
+                        + "?createDatabaseIfNotExist=true&useSSL=false&rewriteBatchedStatements=true";
+            } catch (ManagedProcessException e) {
+                throw new IllegalStateException("Could not start the embedded MariaDB", e);
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Points the Spring datasource at the embedded database, for use from a
+     * {@code @DynamicPropertySource} method.
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", EmbeddedMariaDb::url);
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+    }
+}
@@ -0,0 +1,134 @@
+package com.echocart.backend.controller;
+
+import com.echocart.backend.dto.ReservationRequest;
+import com.echocart.backend.entity.InventoryReservation;
+import com.echocart.backend.entity.User;
+import com.echocart.backend.service.InventoryService;
+import com.echocart.backend.web.AuthPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryControllerTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @InjectMocks
+    private InventoryController controller;
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void loggedInAs(Long userId, User.Role role) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(AuthPrincipal.ATTRIBUTE, new AuthPrincipal(userId, role, 1L, 0L, Long.MAX_VALUE));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static InventoryReservation holdOf(String reference) {
+        InventoryReservation reservation = new InventoryReservation(10L, 2, InventoryReservation.Type.CART,
+                reference, LocalDateTime.now().plusMinutes(30));
+        reservation.setReservationId(7L);
+        return reservation;
+    }
+
+    @Test
+    void anonymousCallersCannotTouchStock() {
+        assertThat(controller.reserveStock(new ReservationRequest(10L, 2)).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.releaseReservation(7L).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.commitReservation(7L).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.getReservations(null).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void reservesForTheCallersOwnCart() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        when(inventoryService.reserveStock(10L, 2, InventoryReservation.Type.CART, "cart:42"))
+                .thenReturn(holdOf("cart:42"));
+
+        assertThat(controller.reserveStock(new ReservationRequest(10L, 2)).getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(inventoryService).reserveStock(10L, 2, InventoryReservation.Type.CART, "cart:42");
+    }
+
+    @Test
+    void aBadQuantityIsABadRequest() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        when(inventoryService.reserveStock(10L, 0, InventoryReservation.Type.CART, "cart:42"))
+                .thenThrow(new IllegalArgumentException("Quantity must be greater than 0"));
+
+        assertThat(controller.reserveStock(new ReservationRequest(10L, 0)).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void releasesTheCallersOwnHold() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        when(inventoryService.findReservation(7L)).thenReturn(Optional.of(holdOf("cart:42")));
+        when(inventoryService.releaseReservation(7L)).thenReturn(true);
+
+        assertThat(controller.releaseReservation(7L).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void someoneElsesHoldLooksMissing() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        when(inventoryService.findReservation(7L)).thenReturn(Optional.of(holdOf("cart:99")));
+
+        assertThat(controller.releaseReservation(7L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(inventoryService, never()).releaseReservation(any());
+    }
+
+    @Test
+    void adminsMayReleaseAnyHold() {
+        loggedInAs(1L, User.Role.ADMIN);
+        when(inventoryService.findReservation(7L)).thenReturn(Optional.of(holdOf("order:1001")));
+        when(inventoryService.releaseReservation(7L)).thenReturn(true);
+
+        assertThat(controller.releaseReservation(7L).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void onlyAdminsCommitAHold() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        assertThat(controller.commitReservation(7L).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(inventoryService, never()).commitReservation(any());
+
+        loggedInAs(1L, User.Role.ADMIN);
+        when(inventoryService.commitReservation(7L)).thenReturn(true);
+        assertThat(controller.commitReservation(7L).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void listsOnlyTheCallersOwnHolds() {
+        loggedInAs(42L, User.Role.CUSTOMER);
+        when(inventoryService.getReservations("cart:42")).thenReturn(List.of(holdOf("cart:42")));
+
+        assertThat(controller.getReservations(null).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.getReservations("cart:99").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(inventoryService, never()).getReservations("cart:99");
+    }
+}
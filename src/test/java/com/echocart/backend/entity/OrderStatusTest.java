@@ -0,0 +1,56 @@
+package com.echocart.backend.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.echocart.backend.entity.Order.Status.CANCELLED;
+import static com.echocart.backend.entity.Order.Status.DELIVERED;
+import static com.echocart.backend.entity.Order.Status.PENDING;
+import static com.echocart.backend.entity.Order.Status.SHIPPED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusTest {
+
+    @Test
+    void pendingCanBeShippedOrCancelled() {
+        assertThat(allowedFrom(PENDING)).containsExactlyInAnyOrder(SHIPPED, CANCELLED);
+    }
+
+    @Test
+    void shippedCanOnlyBeDelivered() {
+        assertThat(allowedFrom(SHIPPED)).containsExactly(DELIVERED);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Order.Status.class, names = {"DELIVERED", "CANCELLED"})
+    void deliveredAndCancelledAreFinal(Order.Status status) {
+        assertThat(allowedFrom(status)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Order.Status.class)
+    void noStatusMovesToItself(Order.Status status) {
+        assertThat(status.canTransitionTo(status)).isFalse();
+    }
+
+    @Test
+    void nothingMovesBackToPending() {
+        for (Order.Status status : Order.Status.values()) {
+            assertThat(status.canTransitionTo(PENDING)).as("%s -> PENDING", status).isFalse();
+        }
+    }
+
+    private static Set<Order.Status> allowedFrom(Order.Status from) {
+        Set<Order.Status> allowed = EnumSet.noneOf(Order.Status.class);
+        for (Order.Status next : Order.Status.values()) {
+            if (from.canTransitionTo(next)) {
+                allowed.add(next);
+            }
+        }
+        return allowed;
+    }
+}
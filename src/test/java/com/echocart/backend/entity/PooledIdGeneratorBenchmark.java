@@ -0,0 +1,185 @@
+package com.echocart.backend.entity;
+
+import com.echocart.backend.EmbeddedMariaDb;
+import com.echocart.backend.repository.ProductRepository;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Real saveAll inserts into the embedded MariaDB: products, keyed by PooledIdGenerator,
+ * against the same rows in a table keyed by IDENTITY, which is what every entity used
+ * before. Reports wall time, the statements Hibernate prepared (reused across batches,
+ * but one per row when IDENTITY forces row-at-a-time inserts) and the INSERTs the server
+ * executed (the driver rewrites each JDBC batch into one multi-row INSERT). Skipped in
+ * normal builds; run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=PooledIdGeneratorBenchmark}.
+ * Tune with {@code -Dbenchmark.rows=20000 -Dbenchmark.chunk=1000}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PooledIdGeneratorBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.register(registry);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM benchmark_identity_products");
+    }
+
+    @Test
+    void reportsStatementsAndTimePerRowForPooledAndIdentityKeys() {
+        int rows = Integer.getInteger("benchmark.rows", 20_000);
+        int chunk = Integer.getInteger("benchmark.chunk", 1_000);
+        SimpleJpaRepository<IdentityKeyedProduct, Long> identityRepository =
+                new SimpleJpaRepository<>(IdentityKeyedProduct.class, entityManager);
+
+        // Warm up the connection pool, the JIT and both tables
+        insert(chunk, chunk, PooledIdGeneratorBenchmark::product, productRepository::saveAll);
+        insert(chunk, chunk, IdentityKeyedProduct::new, identityRepository::saveAll);
+
+        Result pooled = insert(rows, chunk, PooledIdGeneratorBenchmark::product, productRepository::saveAll);
+        Result identity = insert(rows, chunk, IdentityKeyedProduct::new, identityRepository::saveAll);
+
+        System.out.printf("%,d rows saved %,d per saveAll, hibernate.jdbc.batch_size=%d%n", rows, chunk, BATCH_SIZE);
+        System.out.printf("  pooled ids: %,6d statements prepared, %,6d INSERTs executed, %,7d ns/row%n",
+                pooled.prepared, pooled.serverInserts, pooled.nanos / rows);
+        System.out.printf("  IDENTITY:   %,6d statements prepared, %,6d INSERTs executed, %,7d ns/row%n",
+                identity.prepared, identity.serverInserts, identity.nanos / rows);
+
+        // IDENTITY sends each row on its own to read its key back
+        assertThat(identity.prepared).isGreaterThanOrEqualTo(rows);
+        assertThat(identity.serverInserts).isEqualTo(rows);
+        // Pooled ids let each batch of rows reach the server as one INSERT
+        int batches = rows / BATCH_SIZE + rows / chunk;
+        assertThat(pooled.prepared).isLessThan(batches);
+        assertThat(pooled.serverInserts).isLessThanOrEqualTo(batches);
+    }
+
+    private <T> Result insert(int rows, int chunk, IntFunction<T> row, Consumer<List<T>> saveAll) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long insertsBefore = serverInserts();
+
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += chunk) {
+            List<T> entities = new ArrayList<>(chunk);
+            for (int i = from; i < Math.min(rows, from + chunk); i++) {
+                entities.add(row.apply(i));
+            }
+            transactionTemplate.executeWithoutResult(status -> saveAll.accept(entities));
+        }
+        long nanos = System.nanoTime() - start;
+
+        return new Result(statistics.getPrepareStatementCount(), serverInserts() - insertsBefore, nanos);
+    }
+
+    private long serverInserts() {
+        return jdbcTemplate.queryForObject("SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_STATUS " +
+                "WHERE VARIABLE_NAME = 'COM_INSERT'", Long.class);
+    }
+
+    private static Product product(int i) {
+        return new Product("Product " + i, "Benchmark row " + i, new BigDecimal("19.99"), 1L, 100, "img/" + i);
+    }
+
+    private record Result(long prepared, long serverInserts, long nanos) {}
+
+    /**
+     * The products columns under an AUTO_INCREMENT key, as every entity was mapped before
+     * PooledIdGenerator.
+     */
+    @Entity
+    @Table(name = "benchmark_identity_products")
+    static class IdentityKeyedProduct {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long productId;
+
+        @Column(nullable = false, length = 1000)
+        private String name;
+
+        @Column(columnDefinition = "TEXT")
+        private String description;
+
+        @Column(nullable = false, precision = 10, scale = 2)
+        private BigDecimal price;
+
+        @Column(nullable = false)
+        private Long categoryId;
+
+        @Column(nullable = false)
+        private Integer stockQuantity;
+
+        @Column(nullable = false)
+        private String imageUrl;
+
+        protected IdentityKeyedProduct() {}
+
+        IdentityKeyedProduct(int i) {
+            Product product = product(i);
+            this.name = product.getName();
+            this.description = product.getDescription();
+            this.price = product.getPrice();
+            this.categoryId = product.getCategoryId();
+            this.stockQuantity = product.getStockQuantity();
+            this.imageUrl = product.getImageUrl();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.echocart.backend.outbox;
+
+import com.echocart.backend.EmbeddedMariaDb;
+import com.echocart.backend.entity.OutboxEvent;
+import com.echocart.backend.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the dispatcher against a real database, since claiming relies on
+ * SELECT ... FOR UPDATE SKIP LOCKED. The scheduled poll is pushed out of the way, so
+ * each test drives drain() itself.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxDispatcher.class, OutboxPublisher.class, OutboxDispatcherTest.ScriptedSubscriber.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "echocart.outbox.poll-interval-ms=3600000",
+        "echocart.outbox.claim-timeout-ms=500",
+        "echocart.outbox.max-attempts=3",
+        "echocart.outbox.backoff.initial-ms=10000",
+        "echocart.outbox.backoff.max-ms=600000"
+})
+class OutboxDispatcherTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.register(registry);
+    }
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    @Autowired
+    private OutboxPublisher publisher;
+    @Autowired
+    private ScriptedSubscriber subscriber;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void emptyOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        subscriber.received.clear();
+        subscriber.behaviour = message -> { };
+    }
+
+    private Long event() {
+        return outboxEventRepository.save(new OutboxEvent(OutboxEvent.Type.ORDER_CREATED, 1L, "{}")).getEventId();
+    }
+
+    private String status(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM outbox_events WHERE event_id = ?", String.class, eventId);
+    }
+
+    private int attempts(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM outbox_events WHERE event_id = ?", Integer.class, eventId);
+    }
+
+    private LocalDateTime nextAttemptAt(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM outbox_events WHERE event_id = ?",
+                Timestamp.class, eventId).toLocalDateTime();
+    }
+
+    // Skips the backoff wait
+    private void makeDue(Long eventId) {
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_at = ? WHERE event_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), eventId);
+    }
+
+    // Connector/J takes MariaDB's "5.5.5-10.x" version for MySQL 5.5 and drops fractional
+    // seconds, so stored times may be up to a second early
+    private long delayMs(LocalDateTime from, Long eventId) {
+        return Duration.between(from, nextAttemptAt(eventId)).toMillis();
+    }
+
+    @Test
+    void deliversDueEventsAndMarksThemDispatched() {
+        List<Long> events = List.of(event(), event(), event());
+
+        assertThat(dispatcher.drain()).isEqualTo(3);
+
+        for (Long eventId : events) {
+            assertThat(status(eventId)).isEqualTo("DISPATCHED");
+            assertThat(attempts(eventId)).isEqualTo(1);
+        }
+        assertThat(subscriber.received).extracting(OutboxMessage::eventId).containsExactlyInAnyOrderElementsOf(events);
+        assertThat(subscriber.received).extracting(OutboxMessage::attempt).containsOnly(1);
+        assertThat(dispatcher.drain()).isZero();
+    }
+
+    @Test
+    void backsOffFurtherAfterEachFailedAttempt() {
+        subscriber.behaviour = message -> {
+            throw new IllegalStateException("subscriber down");
+        };
+        Long eventId = event();
+
+        LocalDateTime firstFailure = LocalDateTime.now();
+        dispatcher.drain();
+        assertThat(status(eventId)).isEqualTo("PENDING");
+        assertThat(attempts(eventId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM outbox_events WHERE event_id = ?",
+                String.class, eventId)).contains("subscriber down");
+        // 10s base, jittered within its upper half
+        long firstDelay = delayMs(firstFailure, eventId);
+        assertThat(firstDelay).isBetween(4_000L, 10_500L);
+        // Not due yet, so not redelivered
+        assertThat(dispatcher.drain()).isZero();
+
+        makeDue(eventId);
+        LocalDateTime secondFailure = LocalDateTime.now();
+        dispatcher.drain();
+        assertThat(attempts(eventId)).isEqualTo(2);
+        long secondDelay = delayMs(secondFailure, eventId);
+        assertThat(secondDelay).isBetween(9_000L, 20_500L);
+
+        assertThat(subscriber.received).extracting(OutboxMessage::attempt).containsExactly(1, 2);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        subscriber.behaviour = message -> {
+            throw new IllegalStateException("subscriber down");
+        };
+        Long eventId = event();
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            makeDue(eventId);
+            assertThat(dispatcher.drain()).isEqualTo(1);
+        }
+
+        assertThat(status(eventId)).isEqualTo("FAILED");
+        assertThat(attempts(eventId)).isEqualTo(3);
+        makeDue(eventId);
+        assertThat(dispatcher.drain()).isZero();
+        assertThat(subscriber.received).hasSize(3);
+        assertThat(dispatcher.getStats()).containsEntry("deadLettered", 1L);
+    }
+
+    @Test
+    void skipsEventsAnotherDispatcherHasLocked() throws Exception {
+        Long locked = event();
+        Long free = event();
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherInstance = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT event_id FROM outbox_events WHERE event_id = ? FOR UPDATE", locked);
+            lockHeld.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        otherInstance.start();
+        assertThat(lockHeld.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // Neither waits for the lock nor takes the locked event
+            assertThat(dispatcher.drain()).isEqualTo(1);
+            assertThat(status(free)).isEqualTo("DISPATCHED");
+            assertThat(status(locked)).isEqualTo("PENDING");
+        } finally {
+            release.countDown();
+            otherInstance.join();
+        }
+
+        assertThat(dispatcher.drain()).isEqualTo(1);
+        assertThat(status(locked)).isEqualTo("DISPATCHED");
+    }
+
+    @Test
+    void redeliversAnEventWhoseSubscriberOutlivesTheClaim() throws Exception {
+        CountDownLatch firstCall = new CountDownLatch(1);
+        subscriber.behaviour = message -> {
+            if (firstCall.getCount() > 0) {
+                firstCall.countDown();
+                Thread.sleep(10_000);
+            }
+        };
+        Long eventId = event();
+
+        long start = System.nanoTime();
+        dispatcher.drain();
+        // Cancelled at the 500 ms claim timeout, neither dispatched nor counted as a failure
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(status(eventId)).isEqualTo("PENDING");
+        assertThat(attempts(eventId)).isZero();
+
+        // Due again once the claim has run out
+        Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), nextAttemptAt(eventId)).toMillis()) + 50);
+        assertThat(dispatcher.drain()).isEqualTo(1);
+        assertThat(status(eventId)).isEqualTo("DISPATCHED");
+        assertThat(subscriber.received).hasSize(2);
+    }
+
+    @Test
+    void publishedEventsAreDeliveredOnceTheTransactionCommits() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                publisher.publish(OutboxEvent.Type.ORDER_CREATED, 7L, Map.of("orderId", 7)));
+
+        // The commit wakes the poller instead of waiting for the next poll
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (subscriber.received.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(subscriber.received).hasSize(1);
+        OutboxMessage message = subscriber.received.get(0);
+        assertThat(message.aggregateId()).isEqualTo(7L);
+        assertThat(message.payload()).isEqualTo("{\"orderId\":7}");
+        while (!"DISPATCHED".equals(status(message.eventId())) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(status(message.eventId())).isEqualTo("DISPATCHED");
+    }
+
+    @Test
+    void publishingNeedsTheCallersTransaction() {
+        assertThatThrownBy(() -> publisher.publish(OutboxEvent.Type.ORDER_CREATED, 7L, Map.of()))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    static class ScriptedSubscriber implements OutboxSubscriber {
+
+        interface Behaviour {
+            void apply(OutboxMessage message) throws Exception;
+        }
+
+        final List<OutboxMessage> received = new CopyOnWriteArrayList<>();
+        volatile Behaviour behaviour = message -> { };
+
+        @Override
+        public void handle(OutboxMessage message) throws Exception {
+            received.add(message);
+            behaviour.apply(message);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.echocart.backend.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    // Opens once half of at least 4 of the last 10 calls failed; stays open for 1s
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1_000, now::get);
+
+    private void call(boolean fails) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        if (fails) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void staysClosedUntilEnoughCallsFail() {
+        call(false);
+        call(true);
+        call(true);
+        // Two failures out of three, but below the minimum number of calls
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(true);
+        // Three failures out of four
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void successesKeepTheFailureRateBelowTheThreshold() {
+        for (int i = 0; i < 20; i++) {
+            call(i % 4 == 3);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void rejectsCallsWhileOpen() {
+        open();
+        now.addAndGet(999);
+
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+        assertThat(breaker.millisUntilHalfOpen()).isEqualTo(1);
+        assertThat(breaker.getStats()).containsEntry("rejectedCalls", 1L).containsEntry("timesOpened", 1L);
+    }
+
+    @Test
+    void halfOpensAfterTheIntervalAndClosesOnASuccessfulTrial() {
+        open();
+        now.addAndGet(1_000);
+
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.millisUntilHalfOpen()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // Only the one trial call goes through
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getStats()).containsEntry("windowCalls", 0).containsEntry("windowFailures", 0);
+        // The earlier failures are forgotten
+        call(true);
+        call(true);
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void aFailedTrialOpensItAgain() {
+        open();
+        now.addAndGet(1_000);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.millisUntilHalfOpen()).isEqualTo(1_000);
+        assertThat(breaker.getStats()).containsEntry("timesOpened", 2L);
+    }
+
+    @Test
+    void aReleasedTrialLetsTheNextCallTry() {
+        open();
+        now.addAndGet(1_000);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.release();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.echocart.backend.payment;
+
+import com.echocart.backend.outbox.OutboxPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentProcessorTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    private final PaymentGateway gateway = mock(PaymentGateway.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private PaymentProcessor processor;
+
+    @AfterEach
+    void stopWorkers() {
+        processor.shutdown();
+    }
+
+    // One worker, so payments queue behind each other; the breaker opens after 2 of 2 failed calls
+    private PaymentProcessor processor(long gatewayTimeoutMs, long openMs) {
+        processor = new PaymentProcessor(gateway, jdbcTemplate, mock(PlatformTransactionManager.class),
+                mock(OutboxPublisher.class), 1, 5, gatewayTimeoutMs, 2, 2, 0.5, openMs);
+        return processor;
+    }
+
+    private void pay(long paymentId) {
+        processor.admit();
+        processor.submit(paymentId, 100 + paymentId, AMOUNT);
+    }
+
+    private void verifyFinished(long paymentId, String status) {
+        verify(jdbcTemplate, timeout(5_000)).update(startsWith("UPDATE payments"), eq(status), any(), any(),
+                eq(paymentId));
+    }
+
+    private void verifyNeverFinished() {
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE payments"), any(Object[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> breakerStats() {
+        return (Map<String, Object>) processor.getStats().get("circuitBreaker");
+    }
+
+    @Test
+    void shutdownWaitsForACallAtTheGatewayAndSkipsTheQueue() throws Exception {
+        processor(3_000, 30_000);
+        CountDownLatch charging = new CountDownLatch(1);
+        when(gateway.charge(eq(1L), anyLong(), any(), any())).thenAnswer(invocation -> {
+            charging.countDown();
+            Thread.sleep(200);
+            return PaymentGateway.Result.approved("ref-1");
+        });
+        pay(1);
+        pay(2);
+        pay(3);
+        assertThat(charging.await(5, TimeUnit.SECONDS)).isTrue();
+
+        processor.shutdown();
+
+        // The running call was not interrupted, so its answer is recorded
+        verify(jdbcTemplate).update(startsWith("UPDATE payments"), eq("COMPLETED"), eq("ref-1"), any(), eq(1L));
+        // The queued payments stay PENDING for the next start
+        verify(gateway, times(1)).charge(anyLong(), anyLong(), any(), any());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE payments"), any(), any(), any(), eq(2L));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE payments"), any(), any(), any(), eq(3L));
+    }
+
+    @Test
+    void shutdownLeavesAPaymentItHadToInterruptPending() throws Exception {
+        // Graceful shutdown waits the gateway timeout plus a second, then interrupts
+        processor(100, 30_000);
+        CountDownLatch charging = new CountDownLatch(1);
+        when(gateway.charge(eq(1L), anyLong(), any(), any())).thenAnswer(invocation -> {
+            charging.countDown();
+            // A gateway ignoring its timeout, interrupted the way SimulatedPaymentGateway is
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException("Interrupted while waiting for the gateway");
+            }
+            return PaymentGateway.Result.approved("ref-1");
+        });
+        pay(1);
+        assertThat(charging.await(5, TimeUnit.SECONDS)).isTrue();
+
+        processor.shutdown();
+
+        verifyNeverFinished();
+        assertThat(processor.getStats()).containsEntry("gatewayErrors", 0L);
+        assertThat(breakerStats()).containsEntry("windowFailures", 0);
+    }
+
+    @Test
+    void queuedPaymentsWaitOutAnOpenBreakerInsteadOfFailing() {
+        processor(3_000, 300);
+        when(gateway.charge(eq(1L), anyLong(), any(), any())).thenThrow(new PaymentGatewayException("down"));
+        when(gateway.charge(eq(2L), anyLong(), any(), any())).thenThrow(new PaymentGatewayException("down"));
+        when(gateway.charge(eq(3L), anyLong(), any(), any())).thenReturn(PaymentGateway.Result.approved("ref-3"));
+        pay(1);
+        pay(2);
+        verifyFinished(1, "FAILED");
+        verifyFinished(2, "FAILED");
+        assertThat(breakerStats()).containsEntry("state", CircuitBreaker.State.OPEN);
+
+        // Admitted before the breaker opened, so it reaches a worker while the breaker is open
+        processor.submit(3L, 103L, AMOUNT);
+
+        // Retried as the half-open trial, which closes the breaker again
+        verifyFinished(3, "COMPLETED");
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE payments"), eq("FAILED"), any(), any(), eq(3L));
+        assertThat(processor.getStats().get("shortCircuited")).isEqualTo(1L);
+        assertThat(breakerStats()).containsEntry("state", CircuitBreaker.State.CLOSED);
+    }
+}
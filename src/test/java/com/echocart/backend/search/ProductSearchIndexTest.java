@@ -0,0 +1,99 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.dto.ProductSearchResult;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    private static Product product(long id, String name, String description, long categoryId, String price) {
+        Product product = new Product(name, description, new BigDecimal(price), categoryId, 10, "img");
+        product.setProductId(id);
+        return product;
+    }
+
+    @BeforeEach
+    void buildIndex() {
+        List<Product> catalog = List.of(
+                product(1L, "Wireless Mouse", "Ergonomic mouse with a long battery life", 1L, "25.00"),
+                product(2L, "Mouse Pad", "Large cloth pad", 1L, "9.00"),
+                product(3L, "USB Keyboard", "Mechanical keyboard, works with any mouse", 1L, "60.00"),
+                product(4L, "Garden Hose", "Twenty metre hose", 2L, "30.00")
+        );
+        ProductService productService = mock(ProductService.class);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            catalog.forEach(consumer);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        index = new ProductSearchIndex(productService);
+        index.rebuild();
+    }
+
+    private List<Long> ids(ProductSearchResult result) {
+        return result.getHits().stream().map(hit -> hit.getProduct().getProductId()).toList();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        ProductSearchResult result = index.search("mouse", null, null, null, 10);
+
+        assertThat(result.getTotalMatches()).isEqualTo(3);
+        // 1 matches in name and description, 2 in the name only, 3 in the description only
+        assertThat(ids(result)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void scoresDocumentsMatchingMoreTermsHigher() {
+        ProductSearchResult result = index.search("wireless mouse", null, null, null, 10);
+
+        assertThat(ids(result).get(0)).isEqualTo(1L);
+    }
+
+    @Test
+    void appliesFiltersAndLimit() {
+        assertThat(ids(index.search("mouse", null, null, new BigDecimal("20.00"), 10))).containsExactly(2L);
+        assertThat(ids(index.search("hose", 1L, null, null, 10))).isEmpty();
+        assertThat(index.search("mouse", null, null, null, 1).getHits()).hasSize(1);
+    }
+
+    @Test
+    void ignoresStopWordsAndUnknownTerms() {
+        assertThat(index.search("the", null, null, null, 10).getHits()).isEmpty();
+        assertThat(index.search("trampoline", null, null, null, 10).getHits()).isEmpty();
+    }
+
+    @Test
+    void followsProductUpdatesAndDeletes() {
+        index.onProductChanged(ProductChangedEvent.updated(
+                product(4L, "Garden Mouse", "Not really a hose", 2L, "30.00")));
+        index.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertThat(ids(index.search("mouse", null, null, null, 10))).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsStockInSummariesCurrent() {
+        index.onStockChanged(new ProductStockChangedEvent(2L, -4));
+
+        ProductSearchResult result = index.search("pad", null, null, null, 10);
+        assertThat(result.getHits().get(0).getProduct().getStockQuantity()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,67 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lookup latency of the suggester over a synthetic catalog. Skipped in normal builds;
+ * run with {@code mvn test -Dbenchmarks=true -Dtest=ProductSuggesterBenchmark}.
+ * Catalog size can be set with {@code -Dbenchmark.products=1000000}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ProductSuggesterBenchmark {
+
+    private static final String[] WORDS = {
+            "smart", "phone", "wireless", "mouse", "keyboard", "garden", "hose", "coffee", "maker",
+            "steel", "bottle", "running", "shoe", "leather", "wallet", "desk", "lamp", "cotton",
+            "shirt", "gaming", "chair", "kitchen", "knife", "yoga", "mat", "camera", "lens"
+    };
+
+    @Test
+    void reportsSuggestLatencyPercentiles() {
+        int productCount = Integer.getInteger("benchmark.products", 100_000);
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>(productCount);
+        List<Object[]> popularity = new ArrayList<>(productCount);
+        for (long id = 1; id <= productCount; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            catalog.add(ProductSuggesterTest.product(id, name));
+            popularity.add(new Object[]{id, (long) random.nextInt(1000)});
+        }
+        ProductSuggester suggester = ProductSuggesterTest.suggesterOver(catalog, popularity, 10);
+
+        String[] prefixes = new String[10_000];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+
+        long sink = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sink += suggester.suggest(prefixes[i % prefixes.length], 10).size();
+        }
+
+        long[] samples = new long[500_000];
+        for (int i = 0; i < samples.length; i++) {
+            String prefix = prefixes[i % prefixes.length];
+            long start = System.nanoTime();
+            sink += suggester.suggest(prefix, 10).size();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        System.out.printf("suggest over %,d products: p50 %d ns, p99 %d ns, p99.9 %d ns (sink %d)%n",
+                productCount, samples[samples.length / 2], samples[samples.length * 99 / 100],
+                samples[samples.length * 999 / 1000], sink);
+        assertThat(sink).isPositive();
+    }
+}
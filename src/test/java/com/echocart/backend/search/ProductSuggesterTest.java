@@ -0,0 +1,112 @@
+package com.echocart.backend.search;
+
+import com.echocart.backend.dto.ProductSummary;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.event.ProductStockChangedEvent;
+import com.echocart.backend.repository.CartRepository;
+import com.echocart.backend.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    static Product product(long id, String name) {
+        Product product = new Product(name, "desc", new BigDecimal("10.00"), 1L, 10, "img");
+        product.setProductId(id);
+        return product;
+    }
+
+    static ProductSuggester suggesterOver(List<Product> catalog, List<Object[]> popularity, int capacity) {
+        ProductService productService = mock(ProductService.class);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            catalog.forEach(consumer);
+            return null;
+        }).when(productService).streamAllProducts(any());
+        CartRepository cartRepository = mock(CartRepository.class);
+        when(cartRepository.countCartsByProduct()).thenReturn(popularity);
+
+        ProductSuggester suggester = new ProductSuggester(productService, cartRepository, capacity, 24);
+        suggester.rebuild();
+        return suggester;
+    }
+
+    @BeforeEach
+    void buildSuggester() {
+        List<Object[]> popularity = new ArrayList<>();
+        popularity.add(new Object[]{2L, 5L});
+        popularity.add(new Object[]{3L, 9L});
+        suggester = suggesterOver(List.of(
+                product(1L, "Smart Phone"),
+                product(2L, "Smart Watch"),
+                product(3L, "Smartphone Case"),
+                product(4L, "Phone Charger")
+        ), popularity, 10);
+    }
+
+    private List<Long> suggest(String prefix) {
+        return suggester.suggest(prefix, 10).stream().map(ProductSummary::getProductId).toList();
+    }
+
+    @Test
+    void ordersPrefixMatchesByPopularity() {
+        assertThat(suggest("sma")).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void matchesFromAnyWordStartIgnoringCaseAndPunctuation() {
+        assertThat(suggest("PHO")).containsExactly(1L, 4L);
+        assertThat(suggest("smart-w")).containsExactly(2L);
+        assertThat(suggest("ase")).isEmpty();
+    }
+
+    @Test
+    void trailingSpaceOnlyMatchesMultiWordNames() {
+        assertThat(suggest("smart ")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void honoursTheLimitAndBlankInput() {
+        assertThat(suggester.suggest("sma", 1)).hasSize(1);
+        assertThat(suggest("  ")).isEmpty();
+        assertThat(suggester.suggest(null, 10)).isEmpty();
+    }
+
+    @Test
+    void reordersWhenPopularityGrows() {
+        suggester.recordPopularity(1L, 20);
+
+        assertThat(suggest("sma")).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void followsRenamesAndDeletesKeepingPopularity() {
+        suggester.onProductChanged(ProductChangedEvent.updated(product(3L, "Phone Case")));
+        suggester.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertThat(suggest("sma")).containsExactly(2L);
+        assertThat(suggest("pho")).containsExactly(3L, 4L);
+        assertThat(suggester.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsStockInSuggestionsCurrent() {
+        suggester.onStockChanged(new ProductStockChangedEvent(4L, -3));
+
+        assertThat(suggester.suggest("charger", 10).get(0).getStockQuantity()).isEqualTo(7);
+    }
+}
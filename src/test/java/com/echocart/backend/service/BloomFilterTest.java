@@ -0,0 +1,96 @@
+package com.echocart.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnInsertedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("u:user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("u:user" + i)).as("user%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain("u:anyone")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        int capacity = 50_000;
+        BloomFilter filter = new BloomFilter(capacity, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.put("e:member" + i + "@example.com");
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("e:stranger" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+
+        assertThat(measured).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isCloseTo(0.01, within(0.005));
+        assertThat(measured).isCloseTo(filter.expectedFalsePositiveRate(), within(0.005));
+    }
+
+    @Test
+    void sizesBitsAndHashFunctionsFromTheTargetRate() {
+        // m = -n ln p / (ln 2)^2 ≈ 9.59 bits per key and k = (m/n) ln 2 ≈ 7 for p = 1%
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        assertThat(filter.sizeInBytes()).isBetween(1_190_000L, 1_210_000L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    void concurrentInsertsAreAllKept() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        filter.put("u:" + thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Racing CASes on a shared word must not drop each other's bits
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertThat(filter.mightContain("u:" + t + "-" + i)).isTrue();
+            }
+        }
+    }
+}
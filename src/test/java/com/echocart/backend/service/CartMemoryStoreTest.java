@@ -0,0 +1,79 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.repository.CartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CartMemoryStoreTest {
+
+    private final CartMemoryStore store = new CartMemoryStore(mock(CartRepository.class), mock(JdbcTemplate.class),
+            60_000, Integer.MAX_VALUE);
+
+    @Test
+    void mergesAddsIntoOneLine() {
+        CartMemoryStore.Result first = store.add(1L, 10L, 2, 5);
+        CartMemoryStore.Result second = store.add(1L, 10L, 3, 5);
+
+        assertThat(first.created()).isTrue();
+        assertThat(second.created()).isFalse();
+        assertThat(second.line().getCartId()).isEqualTo(first.line().getCartId());
+        assertThat(store.getQuantity(1L, 10L)).isEqualTo(5);
+    }
+
+    @Test
+    void refusesAnAddThatWouldTakeTheLinePastTheLimit() {
+        store.add(1L, 10L, 4, 5);
+
+        assertThat(store.add(1L, 10L, 2, 5)).isNull();
+        assertThat(store.getQuantity(1L, 10L)).isEqualTo(4);
+        assertThat(store.add(1L, 10L, 6, 5)).isNull();
+        assertThat(store.add(2L, 10L, 6, 5)).isNull();
+        assertThat(store.getLines(2L)).isEmpty();
+    }
+
+    @Test
+    void parallelAddsNeverExceedTheStock() throws Exception {
+        int stock = 50;
+        int threads = 16;
+        int addsPerThread = 100;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        if (store.add(1L, 10L, 1, stock) != null) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(store.getQuantity(1L, 10L)).isEqualTo(stock);
+        assertThat(accepted).hasValue(stock);
+        assertThat(store.getLines(1L)).hasSize(1);
+    }
+}
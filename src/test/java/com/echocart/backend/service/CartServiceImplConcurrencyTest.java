@@ -0,0 +1,156 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.EmbeddedMariaDb;
+import com.echocart.backend.entity.Cart;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.entity.User;
+import com.echocart.backend.repository.CartRepository;
+import com.echocart.backend.repository.ProductRepository;
+import com.echocart.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races adds to one cart line against a real database, so the merge/insert statements,
+ * the uk_cart_user_product key and the DuplicateKeyException retry all take part.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CartServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartServiceImplConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.register(registry);
+    }
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductService productService;
+    @MockBean
+    private SearchService searchService;
+    @MockBean
+    private InventoryService inventoryService;
+    @MockBean
+    private HotStockPool hotStockPool;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = userRepository.save(new User("racer", "racer@example.com", "bcrypt-hash", User.Role.CUSTOMER)).getUserId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM cart");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    private Long product(int stock) {
+        Product product = productRepository.save(
+                new Product("Phone", "desc", new BigDecimal("10.00"), 1L, stock, "img"));
+        when(productService.findProduct(product.getProductId())).thenReturn(Optional.of(product));
+        return product.getProductId();
+    }
+
+    /**
+     * Runs THREADS adds of one unit each, released together, and returns how many failed
+     * for lack of stock. Anything else going wrong fails the test.
+     */
+    private int raceAdds(Long productId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Cart>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Callable<Cart> add = () -> {
+                    start.await();
+                    return cartService.addToCart(new Cart(userId, productId, 1));
+                };
+                futures.add(executor.submit(add));
+            }
+            start.countDown();
+
+            int refused = 0;
+            for (Future<Cart> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).hasMessageStartingWith("Insufficient stock");
+                    refused++;
+                }
+            }
+            return refused;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentFirstAddsEndUpInOneLine() throws Exception {
+        Long productId = product(100);
+
+        int refused = raceAdds(productId);
+
+        // All but one insert hit the unique key and merge instead
+        assertThat(refused).isZero();
+        List<Cart> lines = cartRepository.findByUserId(userId);
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0).getQuantity()).isEqualTo(THREADS);
+        verify(searchService, times(1)).recordProductInterest(productId);
+    }
+
+    @Test
+    void concurrentAddsNeverPutMoreInTheLineThanIsInStock() throws Exception {
+        int stock = THREADS / 2;
+        Long productId = product(stock);
+
+        int refused = raceAdds(productId);
+
+        assertThat(refused).isEqualTo(THREADS - stock);
+        assertThat(cartRepository.findByUserIdAndProductId(userId, productId))
+                .get().extracting(Cart::getQuantity).isEqualTo(stock);
+    }
+}
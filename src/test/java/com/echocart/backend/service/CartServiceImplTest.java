@@ -0,0 +1,144 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Cart;
+import com.echocart.backend.entity.InventoryReservation;
+import com.echocart.backend.entity.Product;
+import com.echocart.backend.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartServiceImplTest {
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductService productService = mock(ProductService.class);
+    private final SearchService searchService = mock(SearchService.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final HotStockPool hotStockPool = mock(HotStockPool.class);
+    private final CartServiceImpl cartService = new CartServiceImpl(cartRepository, jdbcTemplate,
+            productService, searchService, inventoryService, hotStockPool, false);
+
+    @BeforeEach
+    void stubProductAndLine() {
+        Product product = new Product("Phone", "desc", new BigDecimal("10.00"), 1L, 5, "img");
+        product.setProductId(10L);
+        when(productService.findProduct(10L)).thenReturn(Optional.of(product));
+        when(cartRepository.findByUserIdAndProductId(1L, 10L)).thenReturn(Optional.of(new Cart(1L, 10L, 4)));
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(10L))).thenReturn(List.of(5));
+        when(jdbcTemplate.queryForList(startsWith("SELECT user_id"), eq(Long.class), eq(1L))).thenReturn(List.of(1L));
+    }
+
+    private void mergeUpdates(int... results) {
+        Integer first = results[0];
+        Integer[] rest = new Integer[results.length - 1];
+        for (int i = 1; i < results.length; i++) {
+            rest[i - 1] = results[i];
+        }
+        when(jdbcTemplate.update(startsWith("UPDATE cart"), any(Object[].class))).thenReturn(first, rest);
+    }
+
+    @Test
+    void mergesIntoAnExistingLine() {
+        mergeUpdates(1);
+
+        cartService.addToCart(new Cart(1L, 10L, 2));
+
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(Object[].class));
+        verify(searchService, never()).recordProductInterest(any());
+    }
+
+    @Test
+    void insertsANewLineAndCountsItsPopularity() {
+        mergeUpdates(0);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenReturn(1);
+
+        cartService.addToCart(new Cart(1L, 10L, 2));
+
+        verify(searchService).recordProductInterest(10L);
+    }
+
+    @Test
+    void refusesWhenTheMergedTotalExceedsStock() {
+        mergeUpdates(0, 0);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("uk_cart_user_product"));
+
+        assertThatThrownBy(() -> cartService.addToCart(new Cart(1L, 10L, 2)))
+                .hasMessage("Insufficient stock. Available: 5, already in cart: 4");
+    }
+
+    @Test
+    void retriesTheMergeWhenAConcurrentAddCreatedTheLine() {
+        mergeUpdates(0, 1);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("uk_cart_user_product"));
+
+        Cart line = cartService.addToCart(new Cart(1L, 10L, 1));
+
+        assertThat(line.getProductId()).isEqualTo(10L);
+        verify(searchService, never()).recordProductInterest(any());
+    }
+
+    @Test
+    void refusesAMissingUserBeforeTouchingTheCart() {
+        assertThatThrownBy(() -> cartService.addToCart(new Cart(99L, 10L, 2)))
+                .hasMessage("User not found with ID: 99");
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void reportsShortStockWhenTheInsertSelectsNothing() {
+        // The cached product still shows 5, but the row has sold down to 1 since
+        when(cartRepository.findByUserIdAndProductId(1L, 10L)).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(10L))).thenReturn(List.of(1));
+        mergeUpdates(0);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> cartService.addToCart(new Cart(1L, 10L, 2)))
+                .hasMessage("Insufficient stock. Available: 1");
+    }
+
+    @Test
+    void countsUnitsLeasedIntoTheHotPoolAsStock() {
+        when(hotStockPool.pooled(10L)).thenReturn(7);
+        mergeUpdates(0, 0);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("uk_cart_user_product"));
+
+        assertThatThrownBy(() -> cartService.addToCart(new Cart(1L, 10L, 2)))
+                .hasMessage("Insufficient stock. Available: 12, already in cart: 4");
+        verify(jdbcTemplate, times(2)).update(startsWith("UPDATE cart"), eq(2), eq(1L), eq(10L), eq(2), eq(7));
+    }
+
+    @Test
+    void holdsTheStockWhenCartHoldsAreOn() {
+        CartServiceImpl holdingService = new CartServiceImpl(cartRepository, jdbcTemplate,
+                productService, searchService, inventoryService, hotStockPool, true);
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenReturn(1);
+
+        holdingService.addToCart(new Cart(1L, 10L, 2));
+
+        verify(inventoryService).reserveStock(10L, 2, InventoryReservation.Type.CART, "cart:1");
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE cart"), any(Object[].class));
+        verify(searchService).recordProductInterest(10L);
+    }
+}
@@ -0,0 +1,82 @@
+package com.echocart.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Test
+    void splitsPlainFieldsOnCommas() throws IOException {
+        assertThat(readAll("name,price\nPhone,10.00\n"))
+                .containsExactly(List.of("name", "price"), List.of("Phone", "10.00"));
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        assertThat(readAll("a,b\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll(",x,,\n")).containsExactly(List.of("", "x", "", ""));
+    }
+
+    @Test
+    void quotedFieldsMayHoldCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "\"Phone, 128GB\",\"The \"\"best\"\" one\",\"line one\nline two\",\"\"\n";
+
+        assertThat(readAll(csv)).containsExactly(
+                List.of("Phone, 128GB", "The \"best\" one", "line one\nline two", ""));
+    }
+
+    @Test
+    void acceptsCrlfAndBareCrLineEndings() throws IOException {
+        assertThat(readAll("a,b\r\nc,d\re,f\r\n"))
+                .containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"));
+    }
+
+    @Test
+    void keepsCrlfInsideQuotedFields() throws IOException {
+        assertThat(readAll("\"one\r\ntwo\",x\r\n")).containsExactly(List.of("one\r\ntwo", "x"));
+    }
+
+    @Test
+    void blankLinesComeBackAsOneEmptyField() throws IOException {
+        // The importer skips these, so blank trailing lines are not reported as bad rows
+        assertThat(readAll("a,b\n\n\r\n")).containsExactly(List.of("a", "b"), List.of(""), List.of(""));
+    }
+
+    @Test
+    void quotesOnlyOpenAFieldAtItsStart() throws IOException {
+        assertThat(readAll("5\" screen,x\n")).containsExactly(List.of("5\" screen", "x"));
+    }
+
+    @Test
+    void reportsAnUnterminatedQuote() {
+        assertThatThrownBy(() -> readAll("a,\"never closed\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field");
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(readAll("")).isEmpty();
+    }
+}
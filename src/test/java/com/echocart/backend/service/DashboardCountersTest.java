@@ -0,0 +1,131 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Order;
+import com.echocart.backend.entity.User;
+import com.echocart.backend.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardCountersTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DashboardCounters counters = new DashboardCounters(jdbcTemplate);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void database(Map<String, Long> roles, Map<String, Long> statuses, long products) {
+        groupCounts("SELECT role", roles);
+        groupCounts("SELECT status", statuses);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM products"), eq(Long.class))).thenReturn(products);
+    }
+
+    private void groupCounts(String sqlPrefix, Map<String, Long> counts) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getString(1)).thenReturn(entry.getKey());
+                when(row.getLong(2)).thenReturn(entry.getValue());
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sqlPrefix), any(RowCallbackHandler.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long count(Map<String, Object> snapshot, String group, String key) {
+        return ((Number) ((Map<String, Object>) snapshot.get(group)).get(key)).longValue();
+    }
+
+    @Test
+    void seedsFromTheDatabase() {
+        database(Map.of("CUSTOMER", 7L, "ADMIN", 2L), Map.of("PENDING", 3L, "SHIPPED", 1L), 40);
+
+        counters.seed();
+
+        Map<String, Object> snapshot = counters.snapshot();
+        assertThat(count(snapshot, "users", "customers")).isEqualTo(7);
+        assertThat(count(snapshot, "users", "total")).isEqualTo(9);
+        assertThat(count(snapshot, "orders", "pending")).isEqualTo(3);
+        assertThat(count(snapshot, "orders", "total")).isEqualTo(4);
+        assertThat(count(snapshot, "products", "total")).isEqualTo(40);
+        // The seed is not drift
+        assertThat(count(snapshot, "countsAsOf", "lastDrift")).isZero();
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndReportsIt() {
+        database(Map.of("CUSTOMER", 7L), Map.of(), 40);
+        counters.seed();
+        counters.userAdded(User.Role.CUSTOMER);
+        counters.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        counters.reconcile();
+
+        Map<String, Object> snapshot = counters.snapshot();
+        assertThat(count(snapshot, "users", "customers")).isEqualTo(7);
+        assertThat(count(snapshot, "products", "total")).isEqualTo(40);
+        assertThat(count(snapshot, "countsAsOf", "lastDrift")).isEqualTo(2);
+    }
+
+    @Test
+    void onlyCreatesAndDeletesMoveTheProductCount() {
+        database(Map.of(), Map.of(), 10);
+        counters.seed();
+
+        counters.onProductChanged(ProductChangedEvent.deleted(1L));
+        counters.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertThat(count(counters.snapshot(), "products", "total")).isEqualTo(8);
+    }
+
+    @Test
+    void transactionalChangesApplyOnlyOnCommit() {
+        database(Map.of(), Map.of("PENDING", 2L), 0);
+        counters.seed();
+
+        TransactionSynchronizationManager.initSynchronization();
+        counters.ordersMoved(Order.Status.PENDING, Order.Status.SHIPPED, 2);
+        assertThat(count(counters.snapshot(), "orders", "pending")).isEqualTo(2);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        Map<String, Object> snapshot = counters.snapshot();
+        assertThat(count(snapshot, "orders", "pending")).isZero();
+        assertThat(count(snapshot, "orders", "shipped")).isEqualTo(2);
+    }
+
+    @Test
+    void aFailedReconcileLeavesTheCountsAlone() {
+        database(Map.of("CUSTOMER", 7L), Map.of(), 3);
+        counters.seed();
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM products"), eq(Long.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        counters.reconcile();
+
+        assertThat(count(counters.snapshot(), "products", "total")).isEqualTo(3);
+    }
+}
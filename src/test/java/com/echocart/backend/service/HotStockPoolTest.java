@@ -0,0 +1,184 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotStockPoolTest {
+
+    private static final long PRODUCT = 7L;
+
+    // Stands in for products.stock_quantity and its conditional decrement
+    private final AtomicInteger row = new AtomicInteger();
+    private final HotStockPool pool;
+
+    HotStockPoolTest() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.decrementStock(eq(PRODUCT), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            int current;
+            do {
+                current = row.get();
+                if (current < quantity) {
+                    return 0;
+                }
+            } while (!row.compareAndSet(current, current - quantity));
+            return 1;
+        });
+        pool = new HotStockPool(productRepository, mock(PlatformTransactionManager.class), List.of(PRODUCT), 8, 20);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void leasesAChunkAndServesLaterTakesFromThePool() {
+        row.set(100);
+
+        assertThat(pool.take(PRODUCT, 3)).isTrue();
+
+        assertThat(row.get()).isEqualTo(77);
+        assertThat(pool.pooled(PRODUCT)).isEqualTo(20);
+        assertThat(pool.take(PRODUCT, 5)).isTrue();
+        assertThat(row.get()).isEqualTo(77);
+        assertThat(pool.pooled(PRODUCT)).isEqualTo(15);
+    }
+
+    @Test
+    void leasesExactlyWhatIsMissingWhenTheRowHasNoFullChunk() {
+        row.set(5);
+
+        assertThat(pool.take(PRODUCT, 5)).isTrue();
+
+        assertThat(row.get()).isZero();
+        assertThat(pool.pooled(PRODUCT)).isZero();
+    }
+
+    @Test
+    void refusesWithoutStrandingUnitsWhenRowAndPoolAreShort() {
+        row.set(3);
+
+        assertThat(pool.take(PRODUCT, 5)).isFalse();
+
+        assertThat(row.get()).isEqualTo(3);
+        assertThat(pool.pooled(PRODUCT)).isZero();
+        assertThat(pool.take(PRODUCT, 3)).isTrue();
+    }
+
+    @Test
+    void gathersAcrossStripesWhenNoSingleStripeHasEnough() {
+        for (int i = 0; i < 8; i++) {
+            pool.giveBack(PRODUCT, 1);
+        }
+
+        // Eight units spread one or two per stripe, nothing left in the row
+        assertThat(pool.take(PRODUCT, 8)).isTrue();
+        assertThat(pool.pooled(PRODUCT)).isZero();
+        assertThat(pool.take(PRODUCT, 1)).isFalse();
+    }
+
+    @Test
+    void topsUpFromTheRowWhatThePoolCannotCover() {
+        pool.giveBack(PRODUCT, 2);
+        row.set(3);
+
+        assertThat(pool.take(PRODUCT, 5)).isTrue();
+
+        assertThat(row.get()).isZero();
+        assertThat(pool.pooled(PRODUCT)).isZero();
+    }
+
+    @Test
+    void followsTheCallersTransaction() {
+        pool.giveBack(PRODUCT, 4);
+        row.set(100);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(pool.take(PRODUCT, 10)).isTrue();
+        // The lease surplus waits for the commit
+        assertThat(pool.pooled(PRODUCT)).isZero();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Rolled back: the database puts the lease back on the row, the pool its own units
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(pool.pooled(PRODUCT)).isEqualTo(4);
+    }
+
+    @Test
+    void drainReturnsThePooledUnits() {
+        pool.giveBack(PRODUCT, 6);
+
+        assertThat(pool.drain(PRODUCT)).isEqualTo(6);
+        assertThat(pool.pooled(PRODUCT)).isZero();
+    }
+
+    @Test
+    void neverSellsMoreThanTheRowHeld() throws Exception {
+        int stock = 5_000;
+        row.set(stock);
+        int threads = 32;
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int misses = 0;
+                    // Keep buying until the stock looks gone a few times in a row
+                    while (misses < 50) {
+                        int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                        if (pool.take(PRODUCT, quantity)) {
+                            sold.addAndGet(quantity);
+                            misses = 0;
+                        } else {
+                            misses++;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every unit is sold, still pooled or still on the row; none twice, none lost
+        assertThat(sold.get() + pool.pooled(PRODUCT) + row.get()).isEqualTo(stock);
+
+        // Whatever the racing buyers left behind can still be sold, one unit at a time
+        while (pool.take(PRODUCT, 1)) {
+            sold.incrementAndGet();
+        }
+        assertThat(sold).hasValue(stock);
+        assertThat(row.get() + pool.pooled(PRODUCT)).isZero();
+    }
+}
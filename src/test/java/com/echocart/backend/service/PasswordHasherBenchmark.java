@@ -0,0 +1,94 @@
+package com.echocart.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login cost: single-core bcrypt verify time per strength, then a burst of concurrent
+ * logins through PasswordHasher to show its throughput, latency and how many it refuses.
+ * Skipped in normal builds; run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=PasswordHasherBenchmark}.
+ * Tune with {@code -Dbenchmark.strength=10 -Dbenchmark.clients=64 -Dbenchmark.logins=400}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PasswordHasherBenchmark {
+
+    @Test
+    void reportsVerifyCostPerStrength() {
+        for (int strength = 8; strength <= 12; strength += 2) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String hash = encoder.encode("benchmark-password");
+            encoder.matches("benchmark-password", hash);
+
+            int rounds = Math.max(3, 200 >> (strength - 8));
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                assertThat(encoder.matches("benchmark-password", hash)).isTrue();
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / rounds;
+            System.out.printf("cost %d: %.1f ms per verify, about %.0f logins/s per core%n",
+                    strength, millis, 1000 / millis);
+        }
+    }
+
+    @Test
+    void reportsThroughputUnderALoginBurst() throws Exception {
+        int strength = Integer.getInteger("benchmark.strength", 10);
+        int clients = Integer.getInteger("benchmark.clients", 64);
+        int logins = Integer.getInteger("benchmark.logins", 400);
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("benchmark-password");
+        PasswordHasher hasher = new PasswordHasher(encoder, 0, 64, 2000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(clients);
+        AtomicInteger refused = new AtomicInteger();
+        try {
+            List<Future<Long>> results = new ArrayList<>(logins);
+            long start = System.nanoTime();
+            for (int i = 0; i < logins; i++) {
+                results.add(callers.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        hasher.verify("benchmark-password", hash);
+                        return System.nanoTime() - begin;
+                    } catch (IllegalStateException e) {
+                        refused.incrementAndGet();
+                        return -1L;
+                    }
+                }));
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> result : results) {
+                long nanos = result.get();
+                if (nanos >= 0) {
+                    latencies.add(nanos);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("cost %d, %d clients, %d logins on %s threads: %.0f logins/s, %d refused%n",
+                    strength, clients, logins, hasher.getStats().get("threads"),
+                    latencies.size() / seconds, refused.get());
+            if (sorted.length > 0) {
+                System.out.printf("  latency p50 %d ms, p99 %d ms%n",
+                        sorted[sorted.length / 2] / 1_000_000, sorted[sorted.length * 99 / 100] / 1_000_000);
+            }
+            System.out.println("  " + hasher.getStats());
+            assertThat(latencies.size() + refused.get()).isEqualTo(logins);
+        } finally {
+            callers.shutdownNow();
+            hasher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.echocart.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void shutdown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void verifiesItsOwnHashes() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 1, 4, 5000);
+
+        String hash = hasher.hash("secret1");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(hasher.verify("secret1", hash)).isEqualTo(new PasswordHasher.Verification(true, false));
+        assertThat(hasher.verify("wrong", hash).matches()).isFalse();
+    }
+
+    @Test
+    void unknownUserNeverMatches() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 1, 4, 5000);
+
+        assertThat(hasher.verify("secret1", null)).isEqualTo(new PasswordHasher.Verification(false, false));
+    }
+
+    @Test
+    void legacyPlaintextMatchesAfterADummyBcryptCheckAndAsksForARehash() {
+        BCryptPasswordEncoder encoder = spy(new BCryptPasswordEncoder(4));
+        hasher = new PasswordHasher(encoder, 1, 4, 5000);
+
+        assertThat(hasher.verify("secret1", "secret1")).isEqualTo(new PasswordHasher.Verification(true, true));
+        assertThat(hasher.verify("wrong", "secret1")).isEqualTo(new PasswordHasher.Verification(false, false));
+        // Same bcrypt work as a real hash, so plaintext accounts cannot be told apart by timing
+        verify(encoder).matches(eq("secret1"), anyString());
+        verify(encoder).matches(eq("wrong"), anyString());
+    }
+
+    @Test
+    void lowerCostHashesAskForARehash() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(5), 1, 4, 5000);
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret1");
+
+        assertThat(hasher.verify("secret1", oldHash)).isEqualTo(new PasswordHasher.Verification(true, true));
+    }
+
+    @Test
+    void abandonedHashesKeepTheirSlotUntilTheyFinish() throws Exception {
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.encode(any())).thenReturn("dummy");
+        hasher = new PasswordHasher(encoder, 1, 1, 50);
+
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        when(encoder.encode(any())).thenAnswer(invocation -> {
+            started.incrementAndGet();
+            gate.await();
+            return "hashed";
+        });
+
+        // One running, one queued; both callers give up after max-wait-ms
+        assertThatThrownBy(() -> hasher.hash("a")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> hasher.hash("b")).isInstanceOf(IllegalStateException.class);
+        assertThat(hasher.getStats()).containsEntry("admitted", 2);
+
+        // The abandoned work still occupies the pool, so a third caller is refused at once
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> hasher.hash("c")).isInstanceOf(IllegalStateException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Integer.valueOf(0).equals(hasher.getStats().get("admitted")) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(hasher.getStats()).containsEntry("admitted", 0);
+        // The running hash finished; the queued one was skipped because nobody waited for it
+        assertThat(started).hasValue(1);
+
+        assertThat(hasher.hash("d")).isEqualTo("hashed");
+        assertThat(started).hasValue(2);
+    }
+}
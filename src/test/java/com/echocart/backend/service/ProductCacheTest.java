@@ -0,0 +1,125 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private static Product product(long id, String name) {
+        Product product = new Product(name, "desc", new BigDecimal("10.00"), 1L, 5, "img");
+        product.setProductId(id);
+        return product;
+    }
+
+    @Test
+    void servesRepeatedReadsWithoutCallingTheLoaderAgain() {
+        ProductCache cache = new ProductCache(100, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Optional<Product> found = cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(product(id, "Phone"));
+            });
+            assertThat(found).map(Product::getName).contains("Phone");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats()).containsEntry("hits", 2L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void handsOutCopiesSoCallersCannotChangeTheCachedProduct() {
+        ProductCache cache = new ProductCache(100, 300);
+        cache.put(product(1L, "Phone"));
+
+        Product first = cache.get(1L, id -> Optional.empty()).orElseThrow();
+        first.setName("Changed by caller");
+
+        assertThat(cache.get(1L, id -> Optional.empty())).map(Product::getName).contains("Phone");
+    }
+
+    @Test
+    void dropsARowLoadedBeforeANewerWrite() {
+        ProductCache cache = new ProductCache(100, 300);
+
+        // The update commits while this reader is still holding the old row
+        cache.get(1L, id -> {
+            cache.put(product(id, "New name"));
+            return Optional.of(product(id, "Old name"));
+        });
+
+        assertThat(cache.get(1L, id -> Optional.empty())).map(Product::getName).contains("New name");
+        assertThat(cache.getStats()).containsEntry("staleLoadsDropped", 1L);
+    }
+
+    @Test
+    void doesNotCacheARowLoadedBeforeAnEviction() {
+        ProductCache cache = new ProductCache(100, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            cache.evict(id);
+            return Optional.of(product(id, "Deleted meanwhile"));
+        });
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getAllLoadsOnlyTheMissesInOneCall() {
+        ProductCache cache = new ProductCache(100, 300);
+        cache.put(product(1L, "Cached"));
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<Long, Product> found = cache.getAll(List.of(1L, 2L, 3L), ids -> {
+            calls.incrementAndGet();
+            assertThat(ids).containsExactly(2L, 3L);
+            return List.of(product(2L, "Loaded"));
+        });
+
+        assertThat(calls).hasValue(1);
+        assertThat(found).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    void staysWithinMaxSizeAndKeepsRecentlyReadEntries() {
+        ProductCache cache = new ProductCache(50, 300);
+        cache.put(product(0L, "Hot"));
+        for (long id = 1; id <= 500; id++) {
+            cache.put(product(id, "P" + id));
+            cache.get(0L, key -> Optional.empty());
+        }
+
+        assertThat((Integer) cache.getStats().get("size")).isLessThanOrEqualTo(50);
+        assertThat(cache.get(0L, id -> Optional.empty())).isPresent();
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() throws InterruptedException {
+        ProductCache cache = new ProductCache(100, 0);
+        cache.put(product(1L, "Short lived"));
+        Thread.sleep(5);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.dto.ImportJob;
+import com.echocart.backend.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceImplTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final ProductImportServiceImpl importService = new ProductImportServiceImpl(productService,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2, 100, 20);
+    private final List<String> saved = new ArrayList<>();
+
+    @AfterEach
+    void stopImporter() {
+        importService.shutdown();
+    }
+
+    private ImportJob importAndWait(String content, String format) throws Exception {
+        ImportJob job = importService.startImport(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.isFinished()).isTrue();
+        return job;
+    }
+
+    @Test
+    void reportsBadRowsByNumberAndImportsTheRest() throws Exception {
+        // A chunk holding "Broken" fails to save, as a duplicate would in the database
+        when(productService.addProducts(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getName().equals("Broken"))) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new SQLIntegrityConstraintViolationException("Duplicate entry 'Broken'"));
+            }
+            products.forEach(product -> saved.add(product.getName()));
+            return products;
+        });
+        String csv = "Name,Description,Price,Category ID,stock_quantity,imageUrl\r\n"
+                + "Phone,\"Fast, small\",10.00,1,5,img/1\r\n"
+                + "Tablet,\"spans\r\ntwo lines\",abc,1,5,img/2\r\n"
+                + ",desc,5.00,1,5,img/3\r\n"
+                + "Laptop,desc,999.99,2,3,img/4\r\n"
+                + "Broken,desc,1.00,1,1,img/5\r\n"
+                + "Mouse,desc,1.00,1,1,img/6\r\n"
+                + "\r\n"
+                + "\r\n";
+
+        ImportJob job = importAndWait(csv, "csv");
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(6);
+        assertThat(job.getImported()).isEqualTo(3);
+        assertThat(job.getFailed()).isEqualTo(3);
+        // Rows count records after the header, so the quoted line break does not shift them
+        assertThat(job.getErrors()).containsExactly(
+                new ImportJob.RowError(2, "Invalid price"),
+                new ImportJob.RowError(3, "Product name is required"),
+                new ImportJob.RowError(5, "Duplicate entry 'Broken'"));
+        assertThat(saved).containsExactly("Phone", "Laptop", "Mouse");
+    }
+
+    @Test
+    void failsTheJobOnAnUnterminatedQuote() throws Exception {
+        ImportJob job = importAndWait("name,price\n\"Phone,10.00\n", "csv");
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getMessage()).isEqualTo("Unterminated quoted field");
+    }
+}
@@ -0,0 +1,59 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.event.ProductChangedEvent;
+import com.echocart.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private HotStockPool hotStockPool;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @Test
+    void deletingAProductAnnouncesIt() {
+        when(productRepository.deleteProductById(5L)).thenReturn(1);
+
+        productService.deleteProduct(5L);
+
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ProductChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getProductId()).isEqualTo(5L);
+        verify(productCache, atLeastOnce()).evict(5L);
+    }
+
+    @Test
+    void deletingAMissingProductFailsWithoutAnEvent() {
+        when(productRepository.deleteProductById(5L)).thenReturn(0);
+
+        assertThatThrownBy(() -> productService.deleteProduct(5L))
+                .hasMessage("Product not found with ID: 5");
+
+        // Nothing reaches the dashboard count or the search index
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
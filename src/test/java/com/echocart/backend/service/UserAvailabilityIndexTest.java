@@ -0,0 +1,123 @@
+package com.echocart.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserAvailabilityIndexTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserAvailabilityIndex index = new UserAvailabilityIndex(jdbcTemplate, 1_000, 0.01);
+
+    private void usersInDatabase(String... usernameEmailPairs) throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn((long) usernameEmailPairs.length / 2);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < usernameEmailPairs.length; i += 2) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getString("username")).thenReturn(usernameEmailPairs[i]);
+                when(row.getString("email")).thenReturn(usernameEmailPairs[i + 1]);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void sendsEverythingToTheDatabaseUntilBuilt() {
+        assertThat(index.mightContainUsername("anyone")).isTrue();
+        assertThat(index.getStats()).containsEntry("ready", false);
+    }
+
+    @Test
+    void answersDefinitelyFreeForUnknownValuesOnceBuilt() throws Exception {
+        usersInDatabase("alice", "alice@example.com", "bob", "bob@example.com");
+
+        index.rebuild();
+
+        assertThat(index.mightContainUsername("alice")).isTrue();
+        assertThat(index.mightContainEmail("bob@example.com")).isTrue();
+        assertThat(index.mightContainUsername("carol")).isFalse();
+        assertThat(index.mightContainEmail("carol@example.com")).isFalse();
+        assertThat(index.getStats()).containsEntry("skippedDatabase", 2L);
+    }
+
+    @Test
+    void foldsCaseAccentsAndTrailingSpacesLikeTheUniqueKey() throws Exception {
+        usersInDatabase("Émile", "Emile@Example.com");
+
+        index.rebuild();
+
+        assertThat(index.mightContainUsername("emile")).isTrue();
+        assertThat(index.mightContainUsername("EMILE  ")).isTrue();
+        assertThat(index.mightContainEmail("emile@example.COM")).isTrue();
+    }
+
+    @Test
+    void usernamesAndEmailsDoNotCollide() throws Exception {
+        usersInDatabase("same", "other@example.com");
+
+        index.rebuild();
+
+        assertThat(index.mightContainEmail("same")).isFalse();
+        assertThat(index.mightContainUsername("other@example.com")).isFalse();
+    }
+
+    @Test
+    void addedUsersAreTakenImmediately() throws Exception {
+        usersInDatabase();
+        index.rebuild();
+
+        index.add("dave", "dave@example.com");
+
+        assertThat(index.mightContainUsername("dave")).isTrue();
+        assertThat(index.mightContainEmail("dave@example.com")).isTrue();
+    }
+
+    @Test
+    void aFailedRebuildKeepsTheOldFilter() throws Exception {
+        usersInDatabase("alice", "alice@example.com");
+        index.rebuild();
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.rebuild();
+
+        assertThat(index.mightContainUsername("alice")).isTrue();
+        assertThat(index.mightContainUsername("carol")).isFalse();
+    }
+
+    @Test
+    void usersAddedDuringARebuildLandInTheNewFilter() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet row = mock(ResultSet.class);
+            when(row.getString("username")).thenReturn("alice");
+            when(row.getString("email")).thenReturn("alice@example.com");
+            handler.processRow(row);
+            // A registration that commits while the scan is still running
+            index.add("erin", "erin@example.com");
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.rebuild();
+
+        for (String username : List.of("alice", "erin")) {
+            assertThat(index.mightContainUsername(username)).as(username).isTrue();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.echocart.backend.service;
+
+import com.echocart.backend.entity.User;
+import com.echocart.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordHasher passwordHasher;
+    @Mock
+    private UserAvailabilityIndex availabilityIndex;
+    @Mock
+    private DashboardCounters dashboardCounters;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    @Test
+    void registerAndUpdateRunOutsideTheClassTransaction() throws Exception {
+        for (String method : new String[]{"registerUser", "updateUser"}) {
+            Transactional transactional = UserServiceImpl.class.getMethod(method, User.class)
+                    .getAnnotation(Transactional.class);
+            assertThat(transactional.propagation()).as(method).isEqualTo(Propagation.NOT_SUPPORTED);
+        }
+    }
+
+    @Test
+    void registerHashesBeforeTheInsert() {
+        when(passwordHasher.hash("secret1")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User saved = userService.registerUser(new User("ann", "ann@example.com", "secret1", null));
+
+        InOrder order = inOrder(passwordHasher, userRepository);
+        order.verify(passwordHasher).hash("secret1");
+        order.verify(userRepository).saveAndFlush(saved);
+        assertThat(saved.getPassword()).isEqualTo("hash");
+        assertThat(saved.getRole()).isEqualTo(User.Role.CUSTOMER);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateHashesBeforeTheTransactionStarts() {
+        User existing = user(7L, "ann", "ann@example.com", "old-hash");
+        when(passwordHasher.hash("secret2")).thenReturn("new-hash");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            // Inside the transaction only the finished hash is applied
+            verify(passwordHasher).hash("secret2");
+            return ((TransactionCallback<User>) invocation.getArgument(0)).doInTransaction(null);
+        });
+        when(userRepository.findById(7L)).thenReturn(Optional.of(existing));
+        when(userRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        User updated = userService.updateUser(user(7L, "ann", "ann@example.com", "secret2"));
+
+        InOrder order = inOrder(passwordHasher, transactionTemplate, userRepository);
+        order.verify(passwordHasher).hash("secret2");
+        order.verify(transactionTemplate).execute(any());
+        order.verify(userRepository).saveAndFlush(existing);
+        assertThat(updated.getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateWithoutPasswordKeepsTheStoredHash() {
+        User existing = user(7L, "ann", "ann@example.com", "old-hash");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<User>) invocation.getArgument(0)).doInTransaction(null));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(existing));
+        when(userRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        User updated = userService.updateUser(user(7L, "ann", "ann@example.com", ""));
+
+        verify(passwordHasher, never()).hash(any());
+        assertThat(updated.getPassword()).isEqualTo("old-hash");
+    }
+
+    private static User user(Long id, String username, String email, String password) {
+        User user = new User(username, email, password, User.Role.CUSTOMER);
+        user.setUserId(id);
+        return user;
+    }
+}
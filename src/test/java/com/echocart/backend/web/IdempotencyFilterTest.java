@@ -0,0 +1,205 @@
+package com.echocart.backend.web;
+
+import com.echocart.backend.EmbeddedMariaDb;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the filter with mock requests over a real IdempotencyStore, since claiming a key
+ * relies on INSERT IGNORE into idempotency_keys. Each test uses its own keys, as the
+ * store's in-memory entries outlive a test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({IdempotencyStore.class, IdempotencyFilter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyFilterTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.register(registry);
+    }
+
+    @Autowired
+    private IdempotencyFilter filter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        return request;
+    }
+
+    // Stands in for the controller: creates order n for the n-th request that reaches it
+    private FilterChain createOrder(int status) {
+        return (request, response) -> {
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            int orderId = handled.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"orderId\":" + orderId + ",\"request\":" + body + "}");
+        };
+    }
+
+    private MockHttpServletResponse send(IdempotencyFilter target, MockHttpServletRequest request, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        return send(filter, request, chain);
+    }
+
+    // A second instance sharing the database but not the first one's memory
+    private IdempotencyFilter otherInstance() {
+        return new IdempotencyFilter(new IdempotencyStore(jdbcTemplate, 24, 10, 60), objectMapper,
+                List.of("/api/orders"));
+    }
+
+    @Test
+    void replaysTheStoredResponseWithoutRunningTheRequestAgain() throws Exception {
+        MockHttpServletResponse first = send(post("replay-1", "{\"cartId\":1}"), createOrder(201));
+        MockHttpServletResponse retry = send(post("replay-1", "{\"cartId\":1}"), createOrder(201));
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo("{\"orderId\":1,\"request\":{\"cartId\":1}}");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(handled).hasValue(1);
+    }
+
+    @Test
+    void replaysFromTheDatabaseOnAnotherInstance() throws Exception {
+        MockHttpServletResponse first = send(post("replay-2", "{\"cartId\":1}"), createOrder(201));
+        MockHttpServletResponse retry = send(otherInstance(), post("replay-2", "{\"cartId\":1}"), createOrder(201));
+
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(handled).hasValue(1);
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() throws Exception {
+        send(post("mismatch-1", "{\"cartId\":1}"), createOrder(201));
+
+        MockHttpServletResponse reused = send(post("mismatch-1", "{\"cartId\":2}"), createOrder(201));
+        MockHttpServletResponse elsewhere = send(otherInstance(), post("mismatch-1", "{\"cartId\":2}"), createOrder(201));
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(reused.getContentAsString()).contains("already used for a different request");
+        assertThat(elsewhere.getStatus()).isEqualTo(422);
+        assertThat(handled).hasValue(1);
+    }
+
+    @Test
+    void serverErrorsAreNotStoredSoTheKeyCanBeRetried() throws Exception {
+        MockHttpServletResponse failed = send(post("retry-1", "{\"cartId\":1}"), createOrder(503));
+        MockHttpServletResponse retry = send(post("retry-1", "{\"cartId\":1}"), createOrder(201));
+
+        assertThat(failed.getStatus()).isEqualTo(503);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(handled).hasValue(2);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstAndGetItsResponse() throws Exception {
+        CountDownLatch inHandler = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain slowOrder = (request, response) -> {
+            inHandler.countDown();
+            try {
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createOrder(201).doFilter(request, response);
+        };
+
+        List<MockHttpServletResponse> responses = new CopyOnWriteArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            clients.add(new Thread(() -> {
+                try {
+                    responses.add(send(post("concurrent-1", "{\"cartId\":1}"), slowOrder));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        clients.forEach(Thread::start);
+        assertThat(inHandler.await(10, TimeUnit.SECONDS)).isTrue();
+        // Let every duplicate reach the store and block on the running request
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (clients.stream().anyMatch(client -> client.getState() != Thread.State.WAITING
+                && client.getState() != Thread.State.TIMED_WAITING) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Meanwhile another instance cannot claim the key and is told so
+        MockHttpServletResponse elsewhere = send(otherInstance(), post("concurrent-1", "{\"cartId\":1}"), createOrder(201));
+        assertThat(elsewhere.getStatus()).isEqualTo(409);
+
+        finish.countDown();
+        for (Thread client : clients) {
+            client.join(10_000);
+        }
+
+        assertThat(handled).hasValue(1);
+        assertThat(responses).hasSize(8);
+        assertThat(responses).extracting(MockHttpServletResponse::getContentAsString)
+                .containsOnly("{\"orderId\":1,\"request\":{\"cartId\":1}}");
+        assertThat(responses).filteredOn(response -> response.getHeader(IdempotencyFilter.REPLAYED_HEADER) != null)
+                .hasSize(7);
+    }
+
+    @Test
+    void leavesRequestsWithoutAKeyAlone() throws Exception {
+        send(post(null, "{\"cartId\":1}"), createOrder(201));
+        MockHttpServletResponse again = send(post(null, "{\"cartId\":1}"), createOrder(201));
+
+        assertThat(again.getContentAsString()).startsWith("{\"orderId\":2");
+        assertThat(handled).hasValue(2);
+    }
+}
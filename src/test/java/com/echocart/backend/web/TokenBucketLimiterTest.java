@@ -0,0 +1,128 @@
+package com.echocart.backend.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private TokenBucketLimiter limiter(int capacity, double refillPerSecond, int maxKeys, int stripes) {
+        return new TokenBucketLimiter(capacity, refillPerSecond, maxKeys, stripes, now::get);
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void allowsABurstUpToCapacityThenRefuses() {
+        TokenBucketLimiter limiter = limiter(3, 1, 100, 4);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+
+        assertThat(limiter.getStats()).containsEntry("admitted", 3L).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void reportsHowLongUntilTheNextToken() {
+        // One token every two seconds
+        TokenBucketLimiter limiter = limiter(1, 0.5, 100, 4);
+        limiter.tryAcquire("alice");
+
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(2000);
+        advanceMillis(500);
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(1500);
+        advanceMillis(1499);
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(1);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucketLimiter limiter = limiter(2, 10, 100, 4);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+
+        // 10 per second: one token after 100 ms, not before
+        advanceMillis(99);
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+        advanceMillis(1);
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void refillNeverExceedsCapacity() {
+        TokenBucketLimiter limiter = limiter(2, 10, 100, 4);
+        limiter.tryAcquire("alice");
+
+        advanceMillis(TimeUnit.HOURS.toMillis(1));
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        TokenBucketLimiter limiter = limiter(1, 1, 100, 4);
+
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+        assertThat(limiter.tryAcquire("bob")).isZero();
+    }
+
+    @Test
+    void fullStripeDropsItsLeastRecentlyUsedBucket() {
+        // One stripe of two buckets
+        TokenBucketLimiter limiter = limiter(1, 0.001, 2, 1);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        // Touching a makes b the eldest
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.getStats()).containsEntry("trackedKeys", 2).containsEntry("evictions", 1L);
+        // b starts over with a full bucket, which in turn drops a; c was kept and is still empty
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.getStats()).containsEntry("evictions", 2L);
+        assertThat(limiter.tryAcquire("c")).isPositive();
+    }
+
+    @Test
+    void roundsStripesUpToAPowerOfTwo() {
+        // 3 stripes become 4 of one bucket each, 1 stays 1 of four buckets
+        TokenBucketLimiter three = limiter(1, 1, 4, 3);
+        TokenBucketLimiter one = limiter(1, 1, 4, 1);
+        for (String key : new String[]{"a", "b", "c", "d"}) {
+            one.tryAcquire(key);
+        }
+
+        assertThat(one.getStats()).containsEntry("trackedKeys", 4).containsEntry("evictions", 0L);
+        for (int i = 0; i < 100; i++) {
+            three.tryAcquire("key" + i);
+        }
+        assertThat((Integer) three.getStats().get("trackedKeys")).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void memoryStaysBoundedUnderManyKeys() {
+        TokenBucketLimiter limiter = limiter(5, 1, 64, 8);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("10.1." + (i / 256) + "." + (i % 256));
+        }
+
+        assertThat((Integer) limiter.getStats().get("trackedKeys")).isLessThanOrEqualTo(64);
+        assertThat((Long) limiter.getStats().get("evictions")).isGreaterThanOrEqualTo(10_000 - 64);
+    }
+}